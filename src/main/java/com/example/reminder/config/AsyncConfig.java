@@ -0,0 +1,99 @@
+package com.example.reminder.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.sql.DataSource;
+
+/**
+ * Executors of the app. With spring.threads.virtual.enabled=true (which also moves Tomcat
+ * request handling to virtual threads) they run their tasks on virtual threads; their sizes
+ * still bound concurrency, so SMTP connections and the JDBC pool are never oversubscribed.
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // reminder ticks, wheel refills and outbox draining must not wait for each other
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${app.scheduler.threads:4}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setVirtualThreads(virtualThreads);
+        return scheduler;
+    }
+
+    // dispatches claimed reminder pages in parallel, each page holds one JDBC connection
+    // for its transaction, so parallelism is capped below the connection pool size
+    @Bean(name = "reminderDispatchExecutor")
+    public ThreadPoolTaskExecutor reminderDispatchExecutor(
+            @Value("${app.reminder.dispatch.parallelism:4}") int parallelism,
+            @Value("${app.reminder.dispatch.reserved-connections:4}") int reservedConnections,
+            DataSource dataSource) {
+
+        int threads = parallelism;
+        if (dataSource instanceof HikariDataSource hikari) {
+            // leave connections for requests, the claim transaction and the outbox dispatcher
+            threads = Math.max(1, Math.min(parallelism, hikari.getMaximumPoolSize() - reservedConnections));
+        }
+        log.info("Reminder dispatch parallelism {} ({} threads)", threads, virtualThreads ? "virtual" : "platform");
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("reminder-dispatch-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // dedicated, bounded pool for SMTP sends, so mail latency never blocks the reminder scheduler
+    // and a reminder spike cannot pile up MimeMessages in memory
+    @Bean(name = "emailExecutor")
+    public ThreadPoolTaskExecutor emailExecutor(
+            @Value("${app.mail.executor.threads:4}") int threads,
+            @Value("${app.mail.executor.queue-capacity:500}") int queueCapacity,
+            @Value("${app.mail.executor.rejection-policy:SPILL_TO_DB}") EmailRejectedExecutionHandler.Policy policy,
+            MeterRegistry registry) {
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("email-");
+        // sends block on SMTP I/O, virtual threads park instead of pinning a platform thread
+        executor.setVirtualThreads(virtualThreads);
+        executor.setRejectedExecutionHandler(new EmailRejectedExecutionHandler(policy,
+                Counter.builder("reminder.email.executor.rejected")
+                        .description("Email sends rejected because the executor queue was full")
+                        .register(registry)));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        Gauge.builder("reminder.email.executor.queue.size", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Email sends waiting for a thread")
+                .register(registry);
+        Gauge.builder("reminder.email.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Email threads currently sending")
+                .register(registry);
+        Gauge.builder("reminder.email.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .register(registry);
+
+        return executor;
+    }
+}
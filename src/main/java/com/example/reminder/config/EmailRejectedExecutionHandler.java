@@ -0,0 +1,49 @@
+package com.example.reminder.config;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Rejection policy of the email executor once its bounded queue is full.
+ * CALLER_RUNS sends on the submitting thread, SPILL_TO_DB hands outbox sends back
+ * to the outbox (they are retried on a later poll) and runs anything else on the caller.
+ */
+@Slf4j
+public class EmailRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    public enum Policy {
+        CALLER_RUNS,
+        SPILL_TO_DB
+    }
+
+    /** a task that can give its work back to the database instead of running it */
+    public interface Spillable {
+        void spill();
+    }
+
+    private final Policy policy;
+    private final Counter rejected;
+
+    public EmailRejectedExecutionHandler(Policy policy, Counter rejected) {
+        this.policy = policy;
+        this.rejected = rejected;
+    }
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+        rejected.increment();
+
+        if (policy == Policy.SPILL_TO_DB && task instanceof Spillable spillable) {
+            spillable.spill();
+            return;
+        }
+        if (executor.isShutdown()) {
+            log.warn("Email executor is shut down, dropping task {}", task);
+            return;
+        }
+        task.run();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.reminder.config;
+
+import com.example.reminder.model.Event;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * events used IDENTITY ids before the pooled sequence was introduced. On MySQL the sequence
+ * is the table events_seq, which ddl-auto creates starting at 1, so it is moved past the
+ * existing ids once at startup, before the scheduler or any request can insert.
+ */
+@Slf4j
+@Component
+public class EventIdSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // the EntityManagerFactory dependency makes this run after the schema update
+    public EventIdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignWithExistingIds() {
+        try {
+            int updated = jdbcTemplate.update(
+                    "UPDATE events_seq SET next_val = GREATEST(next_val, " +
+                            "(SELECT COALESCE(MAX(id), 0) + ? FROM events))",
+                    Event.ID_ALLOCATION_SIZE + 1);
+            log.debug("events_seq aligned with existing event ids ({} rows)", updated);
+        } catch (Exception e) {
+            // native sequences or a fresh schema, nothing to align
+            log.warn("Could not align events_seq with existing event ids: {}", e.getMessage());
+        }
+    }
+}
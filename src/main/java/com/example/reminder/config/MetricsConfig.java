@@ -0,0 +1,10 @@
+package com.example.reminder.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+// exposes /actuator/prometheus by default (see metrics.properties), SecurityConfig limits it to localhost
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+}
@@ -2,15 +2,25 @@ package com.example.reminder.controller;
 
 import com.example.reminder.dto.*;
 import com.example.reminder.exception.ResourceNotFoundException;
+import com.example.reminder.exception.BadRequestException;
+import com.example.reminder.model.EmailDeadLetter;
+import com.example.reminder.model.EmailKind;
 import com.example.reminder.model.Event;
+import com.example.reminder.model.User;
 import com.example.reminder.repository.EventRepository;
 import com.example.reminder.repository.UserRepository;
+import com.example.reminder.service.EmailDeadLetterService;
+import com.example.reminder.service.EmailOutboxService;
+import com.example.reminder.service.DataVersions;
 import com.example.reminder.service.EmailService;
 import com.example.reminder.service.EventService;
 import jakarta.validation.constraints.Email;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -31,7 +41,10 @@ public class AdminController {
     private final EventRepository eventRepo;
     private final UserRepository userRepo;
     private final EmailService emailService;
+    private final EmailOutboxService emailOutbox;
     private final EventService eventService;
+    private final EmailDeadLetterService deadLetterService;
+    private final DataVersions dataVersions;
 
     @GetMapping("/events/paged")
     @PreAuthorize("hasRole('ADMIN')")
@@ -41,13 +54,28 @@ public class AdminController {
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String direction,
             @RequestParam(required = false) String afterDate,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "offset") String paging,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
 
         LocalDate dateFilter = null;
         if (afterDate != null && !afterDate.isEmpty()) {
             dateFilter = LocalDate.parse(afterDate);
         }
 
+        // deep pages without OFFSET scans, see /api/events/paged
+        if ("keyset".equalsIgnoreCase(paging)) {
+            CursorPageResponse<Event> window = eventService.getKeysetEventsForAdmin(size, sortBy, direction,
+                    dateFilter, search, cursor, withTotal);
+
+            CursorPageResponse<AdminEventResponse> responseData = new CursorPageResponse<>(
+                    window.getContent().stream().map(AdminEventResponse::fromEntity).toList(),
+                    window.getSize(), window.isHasNext(), window.getNextCursor(),
+                    window.getTotalItems(), window.isTotalApproximate());
+            return ResponseEntity.ok(new ApiResponse<>("success", "Paged Events retrieved" , responseData));
+        }
+
         var pageResult= eventService.getPagedEventsForAdmin(page,size,sortBy,direction,dateFilter,search);
 
         List<AdminEventResponse> eventResponses = pageResult.getContent().stream()
@@ -134,15 +162,18 @@ public class AdminController {
 
         try {
             String htmlBody = emailService.buildReminderHtml(event);
-            emailService.sendReminderHtml(
+            emailOutbox.enqueue(
                     event.getUser().getEmail(),
                     "Reminder: " + event.getTitle(),
-                    htmlBody
+                    htmlBody,
+                    EmailKind.REMINDER,
+                    event.getId()
                     );
 
             event.setReminderSent(true);
             event.setReminderSentTime(LocalDateTime.now());
             eventRepo.save(event);
+            dataVersions.bump(event.getUser().getId());
 
             return ResponseEntity.ok(
                     new ApiResponse<>("success", "Reminder sent successfully.",null)
@@ -189,4 +220,64 @@ public class AdminController {
         );
     }
 
+    // compares event_occurrences with a fresh expansion, repair=true rebuilds the user's rows
+    @GetMapping("/occurrences/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String,Object>>> verifyOccurrences(
+            @RequestParam Long userId,
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(defaultValue = "false") boolean repair) {
+
+        User user = userRepo.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + userId));
+
+        Map<String,Object> result = eventService.verifyOccurrenceIndex(user, LocalDate.parse(start), LocalDate.parse(end), repair);
+
+        log.info("Occurrence index verification for user {} {}..{} -> {}", userId, start, end, result);
+        return ResponseEntity.ok(new ApiResponse<>("success", "Occurrence index verified.", result));
+    }
+
+    @GetMapping("/dead-letters")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PageResponse<EmailDeadLetterResponse>>> getDeadLetters(
+            @RequestParam(defaultValue = "0") Integer page,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) EmailKind kind) {
+
+        int p = Math.max(page, 0);
+        int s = (size <= 0 || size > 100) ? 20 : size;
+        Page<EmailDeadLetter> result = deadLetterService.getDeadLetters(kind,
+                PageRequest.of(p, s, Sort.by(Sort.Direction.DESC, "deadAt", "id")));
+
+        PageResponse<EmailDeadLetterResponse> responseData = new PageResponse<>(
+                result.getContent().stream().map(EmailDeadLetterResponse::fromEntity).toList(),
+                result.getNumber(),
+                result.getTotalElements(),
+                result.getTotalPages(),
+                result.getSize());
+
+        return ResponseEntity.ok(new ApiResponse<>("success", "Dead letters fetched", responseData));
+    }
+
+    @PostMapping("/dead-letters/requeue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String,Object>>> requeueDeadLetters(
+            @RequestBody RequeueDeadLettersRequest request) {
+
+        int requeued;
+        if (request.isAll()) {
+            requeued = deadLetterService.requeueAll(request.getKind());
+        } else if (request.getIds() != null && !request.getIds().isEmpty()) {
+            requeued = deadLetterService.requeue(request.getIds());
+        } else {
+            throw new BadRequestException("Either ids or all=true is required.");
+        }
+
+        log.info("Admin requeued {} dead letters", requeued);
+        return ResponseEntity.ok(
+                new ApiResponse<>("success", "Dead letters requeued.", Map.of("requeued", requeued))
+        );
+    }
+
 }
@@ -0,0 +1,31 @@
+package com.example.reminder.controller;
+
+import com.example.reminder.model.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET for the user's event, calendar and reminder reads. The ETag is derived from
+ * users.data_version, which is loaded with the current user anyway, so a matching If-None-Match
+ * is answered with 304 before any event query runs.
+ */
+@Component
+public class DataVersionETags {
+
+    /** variant separates representations (JSON / NDJSON) or time windows of the same URL */
+    public String of(User user, Object... variant) {
+        StringBuilder etag = new StringBuilder("\"u").append(user.getId()).append("-v").append(user.getDataVersion());
+        for (Object v : variant) {
+            etag.append('-').append(v);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * true when the client's copy is current: the response is then already a 304 and the
+     * handler returns null. Otherwise the ETag header is set and the handler continues.
+     */
+    public boolean notModified(WebRequest request, User user, Object... variant) {
+        return request.checkNotModified(of(user, variant));
+    }
+}
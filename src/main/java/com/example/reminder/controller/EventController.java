@@ -10,9 +10,11 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cglib.core.Local;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -25,10 +27,15 @@ import java.util.Map;
 public class EventController {
     private final EventService service;
     private final AuthContext authContext;
+    private final NdjsonResponses ndjson;
+    private final DataVersionETags etags;
 
-    public EventController(EventService service,  AuthContext authContext) {
+    public EventController(EventService service,  AuthContext authContext, NdjsonResponses ndjson,
+                           DataVersionETags etags) {
         this.service = service;
         this.authContext =  authContext;
+        this.ndjson = ndjson;
+        this.etags = etags;
     }
 
     /*
@@ -36,6 +43,8 @@ public class EventController {
     support pagination, sorting and optional date filter
     Example
     /api/events/paged?page=0&size=5&sortBy=is&direction=asc&afterDate=2025-10-18
+    paging=keyset switches to cursor paging: no page number and no counts, pass nextCursor
+    back as cursor, withTotal=true adds totalItems
     * */
     @GetMapping("/paged")
     public ResponseEntity<ApiResponse<Object>> getPagedEvents (
@@ -44,15 +53,38 @@ public class EventController {
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String direction,
             @RequestParam(required = false) String afterDate,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "offset") String paging,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            WebRequest request) {
 
+        User user = authContext.getCurrentUser();
+        if (etags.notModified(request, user)) {
+            return null;
+        }
 
         LocalDate dateFilter = null;
         if (afterDate != null && !afterDate.isEmpty()) {
             dateFilter = LocalDate.parse(afterDate);
         }
 
-        var pageResult= service.getPagedEventsForUser(authContext.getCurrentUser(),page,size,sortBy,direction,
+        if ("keyset".equalsIgnoreCase(paging)) {
+            CursorPageResponse<Event> window = service.getKeysetEventsForUser(user, size, sortBy, direction,
+                    dateFilter, search, cursor, withTotal);
+
+            log.info("Get /api/events/paged -> keyset size={} , sortBy={} , direction={} , afterDate={} , search={}" ,
+                    size , sortBy , direction , afterDate, search
+            );
+
+            CursorPageResponse<EventResponse> responseData = new CursorPageResponse<>(
+                    window.getContent().stream().map(EventResponse::fromEntity).toList(),
+                    window.getSize(), window.isHasNext(), window.getNextCursor(),
+                    window.getTotalItems(), window.isTotalApproximate());
+            return ResponseEntity.ok(new ApiResponse<>("success", "Paged Events retrieved" , responseData));
+        }
+
+        var pageResult= service.getPagedEventsForUser(user,page,size,sortBy,direction,
                 dateFilter,search);
 
         List<EventResponse> eventResponses = pageResult.getContent().stream()
@@ -77,10 +109,23 @@ public class EventController {
      * GET /api/events
      * Retrieve all events from the database.
      * Returns 200 OK if data exists, If list is empty, data = [] and a friendly message.
+     * With Accept: application/x-ndjson the events are streamed, one per line, without the envelope.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<EventResponse>>> getAll() {
-        List<Event> events = service.getAllEventsForCurrentUser(authContext.getCurrentUser());
+    public ResponseEntity<?> getAll(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                    WebRequest request) {
+        User user = authContext.getCurrentUser();
+        boolean stream = ndjson.isRequested(accept);
+        if (etags.notModified(request, user, stream ? "ndjson" : "json")) {
+            return null;
+        }
+
+        if (stream) {
+            log.info("Get /api/events -> streaming");
+            return ndjson.stream(sink -> service.streamEventsForUser(user, sink::accept));
+        }
+
+        List<Event> events = service.getAllEventsForCurrentUser(user);
         log.info("Get /api/events -> {} items", events.size());
         String message = (events.isEmpty()) ? "No Events found for current user." : "Events retrieved successfully.";
         List<EventResponse> eventResponseList = new ArrayList<>();
@@ -168,12 +213,26 @@ public class EventController {
         return ResponseEntity.ok(new ApiResponse<>("success","Event Deleted.",eventResponse));
     }
 
+    /**
+     * GET /api/events/calendar?start=...&end=...
+     * With Accept: application/x-ndjson occurrences are streamed, one per line, as they are expanded.
+     */
     @GetMapping("/calendar")
-    public ResponseEntity<ApiResponse<List<EventResponse>>> getCalendarEvents(
+    public ResponseEntity<?> getCalendarEvents(
             @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
-            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request
     ) {
         User user = authContext.getCurrentUser();
+        boolean stream = ndjson.isRequested(accept);
+        if (etags.notModified(request, user, stream ? "ndjson" : "json")) {
+            return null;
+        }
+
+        if (stream) {
+            return ndjson.stream(sink -> service.streamCalendarEvents(user, start, end, sink::accept));
+        }
 
         List<EventResponse> list = service.getCalendarEvents(user, start, end);
 
@@ -183,6 +242,28 @@ public class EventController {
 
     }
 
+    /**
+     * GET /api/events/calendar/busy-days?start=...&end=...
+     * Only which days have occurrences, as a bitset, for dots in month and year views.
+     */
+    @GetMapping("/calendar/busy-days")
+    public ResponseEntity<ApiResponse<BusyDaysResponse>> getBusyDays(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            WebRequest request
+    ) {
+        User user = authContext.getCurrentUser();
+        if (etags.notModified(request, user)) {
+            return null;
+        }
+
+        BusyDaysResponse busyDays = service.getBusyDays(user, start, end);
+
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success" , "Busy days fetched" , busyDays
+        ));
+    }
+
     @PutMapping("/{id}/move-date")
     public ResponseEntity<ApiResponse<Void>> moveEventDate(
             @PathVariable Long id ,
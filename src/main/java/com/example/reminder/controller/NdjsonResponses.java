@@ -0,0 +1,73 @@
+package com.example.reminder.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Opt-in newline-delimited JSON (Accept: application/x-ndjson): one item per line, written while
+ * the items are produced instead of after the whole list is built. No ApiResponse envelope.
+ */
+@Component
+public class NdjsonResponses {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // the first line is flushed right away, the rest in chunks
+    private static final int FLUSH_EVERY = 256;
+
+    private final JsonFactory factory;
+    private final ObjectWriter writer;
+
+    public NdjsonResponses(ObjectMapper objectMapper) {
+        this.factory = objectMapper.getFactory();
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /** true only when the client asked for NDJSON explicitly, wildcards keep the JSON envelope */
+    public boolean isRequested(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        return MediaType.parseMediaTypes(accept).stream().anyMatch(NDJSON::equalsTypeAndSubtype);
+    }
+
+    /** producer runs on the streaming thread and passes every item to the given sink */
+    public ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<Object>> producer) {
+        StreamingResponseBody body = out -> {
+            JsonGenerator gen = factory.createGenerator(out);
+            gen.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            gen.setRootValueSeparator(null);
+
+            producer.accept(new Consumer<>() {
+                private int written;
+
+                @Override
+                public void accept(Object item) {
+                    try {
+                        writer.writeValue(gen, item);
+                        gen.writeRaw('\n');
+                        if (++written == 1 || written % FLUSH_EVERY == 0) {
+                            gen.flush();
+                        }
+                    } catch (IOException ex) {
+                        // client went away, stop producing
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            });
+            gen.close();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
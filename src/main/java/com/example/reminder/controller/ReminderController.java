@@ -15,7 +15,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @RestController
@@ -25,14 +28,23 @@ public class ReminderController {
 
     private final AuthContext authContext;
     private final ReminderService reminderService;
+    private final DataVersionETags etags;
+
+    // windows are evaluated per minute, so a response only changes with the data version or the minute
+    private static LocalDateTime currentMinute() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+    }
 
     @GetMapping("/upcoming")
     public ResponseEntity<ApiResponse<List<ReminderResponse>>> getUpcomingReminders1Minute (
-            @RequestParam(defaultValue = "1") long minute) {
+            @RequestParam(defaultValue = "1") long minute, WebRequest request) {
 
         var currentUser = authContext.getCurrentUser();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime threshold = LocalDateTime.now().plusMinutes(minute);
+        LocalDateTime now = currentMinute();
+        if (etags.notModified(request, currentUser, now)) {
+            return null;
+        }
+        LocalDateTime threshold = now.plusMinutes(minute);
 
         List<Event> events = reminderService.getAllReminders(currentUser, now, threshold, false);
 
@@ -48,10 +60,13 @@ public class ReminderController {
     }
 
     @GetMapping("/upcoming/24-hours")
-    public ResponseEntity<ApiResponse<List<ReminderResponse>>> getUpcomingReminders24Hours () {
+    public ResponseEntity<ApiResponse<List<ReminderResponse>>> getUpcomingReminders24Hours (WebRequest request) {
         var currentUser = authContext.getCurrentUser();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime threshold = LocalDateTime.now().plusHours(24);
+        LocalDateTime now = currentMinute();
+        if (etags.notModified(request, currentUser, now)) {
+            return null;
+        }
+        LocalDateTime threshold = now.plusHours(24);
         List<Event> events = reminderService.getAllReminders(currentUser, now, threshold , false);
         List<ReminderResponse> ReminderResponses = events.stream()
                 .map(ReminderResponse::fromEntity)
@@ -61,11 +76,15 @@ public class ReminderController {
     }
 
     @GetMapping("/sent/24-hours")
-    public ResponseEntity<ApiResponse<List<ReminderResponse>>> getSentReminders24Hours () {
+    public ResponseEntity<ApiResponse<List<ReminderResponse>>> getSentReminders24Hours (WebRequest request) {
         var currentUser = authContext.getCurrentUser();
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime threshold = LocalDateTime.now().minusHours(24);
-        List<Event> events = reminderService.getAllReminders(currentUser, now, threshold, true);
+        LocalDateTime now = currentMinute();
+        if (etags.notModified(request, currentUser, now)) {
+            return null;
+        }
+        LocalDateTime threshold = now.minusHours(24);
+        // up to the end of the current minute, reminders sent since are covered by the version bump
+        List<Event> events = reminderService.getAllReminders(currentUser, now.plusMinutes(1), threshold, true);
         List<ReminderResponse> ReminderResponses = events.stream()
                 .map(ReminderResponse::fromEntity)
                 .toList();
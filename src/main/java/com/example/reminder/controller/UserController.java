@@ -23,7 +23,8 @@ public class UserController {
         UserProfileResponse profile = new UserProfileResponse(
                 currentUser.getId(),
                 currentUser.getEmail(),
-                currentUser.getRolesAsString()
+                currentUser.getRolesAsString(),
+                currentUser.isReminderDigest()
         );
         return ResponseEntity.ok(
                 new ApiResponse<>("success","profile fetched", profile));
@@ -58,4 +59,20 @@ public class UserController {
         );
     }
 
+    @PutMapping("/reminder-digest")
+    public ResponseEntity<ApiResponse<UserProfileResponse>> changeReminderDigest(
+            @RequestBody @Valid ReminderDigestRequest request
+    )
+    {
+        User currentUser = authContext.getCurrentUser();
+
+        userService.changeReminderDigest(currentUser, request.getEnabled());
+
+        return ResponseEntity.ok(
+                new ApiResponse<>("success", "Reminder digest " +
+                        (request.getEnabled() ? "enabled." : "disabled."),
+                        UserProfileResponse.fromEntity(currentUser))
+        );
+    }
+
 }
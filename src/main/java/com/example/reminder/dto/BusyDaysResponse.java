@@ -0,0 +1,22 @@
+package com.example.reminder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Which days in [start, end] have at least one occurrence. days is a base64 bitset,
+ * little-endian like java.util.BitSet: bit i of byte i / 8 is start + i days (bit 0 = lowest bit).
+ * Trailing empty bytes are left out; a whole year is at most 46 bytes, 64 characters of base64.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BusyDaysResponse {
+    private LocalDate start;
+    private LocalDate end;
+    private int busyDays;
+    private String days;
+}
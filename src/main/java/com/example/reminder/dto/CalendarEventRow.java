@@ -0,0 +1,43 @@
+package com.example.reminder.dto;
+
+import com.example.reminder.model.Event;
+import com.example.reminder.model.RecurrenceType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The columns calendar expansion needs, selected with a JPQL constructor expression
+ * so singles, exceptions and recurring masters come back in one query without hydrating entities.
+ */
+public record CalendarEventRow(
+        Long id,
+        String title,
+        String description,
+        LocalDate eventDate,
+        LocalDateTime reminderTime,
+        RecurrenceType recurrenceType,
+        Integer recurrenceInterval,
+        LocalDate recurrenceEndDate,
+        Long parentEventId,
+        boolean isException,
+        LocalDate originalDate,
+        String recurrenceRule
+) {
+
+    public static CalendarEventRow of(Event e) {
+        return new CalendarEventRow(e.getId(), e.getTitle(), e.getDescription(), e.getEventDate(),
+                e.getReminderTime(), e.getRecurrenceType(), e.getRecurrenceInterval(), e.getRecurrenceEndDate(),
+                e.getParentEventId(), e.isException(), e.getOriginalDate(), e.getRecurrenceRule());
+    }
+
+    public boolean isSingle() {
+        return !isException && recurrenceType == RecurrenceType.NONE;
+    }
+
+    public EventResponse toResponse() {
+        return new EventResponse(id, title, description, eventDate, reminderTime,
+                recurrenceType, recurrenceInterval, recurrenceEndDate,
+                parentEventId, isException, originalDate, recurrenceRule);
+    }
+}
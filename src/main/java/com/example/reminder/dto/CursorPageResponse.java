@@ -0,0 +1,23 @@
+package com.example.reminder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page: pass nextCursor back to get the following one (null on the last page).
+ * totalItems is only filled on request and may be an estimate, see totalApproximate.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalItems;
+    private boolean totalApproximate;
+}
@@ -0,0 +1,40 @@
+package com.example.reminder.dto;
+
+import com.example.reminder.model.EmailDeadLetter;
+import com.example.reminder.model.EmailKind;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmailDeadLetterResponse {
+    private Long id;
+    private Long outboxId;
+    private String recipient;
+    private String subject;
+    private EmailKind kind;
+    private Long eventId;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime deadAt;
+
+    public static EmailDeadLetterResponse fromEntity(EmailDeadLetter d) {
+        return new EmailDeadLetterResponse(
+                d.getId(),
+                d.getOutboxId(),
+                d.getRecipient(),
+                d.getSubject(),
+                d.getKind(),
+                d.getEventId(),
+                d.getAttempts(),
+                d.getLastError(),
+                d.getCreatedAt(),
+                d.getDeadAt()
+        );
+    }
+}
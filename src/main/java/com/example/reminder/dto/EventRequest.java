@@ -6,6 +6,7 @@ import com.example.reminder.validation.TomorrowOrLater;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -35,4 +36,8 @@ public class EventRequest {
     private Integer recurrenceInterval;
     private LocalDate recurrenceEndDate;
 
+    // RFC 5545 RRULE, e.g. FREQ=MONTHLY;BYDAY=-1FR. takes precedence over recurrenceType / interval
+    @Size(max = 255, message = "Recurrence rule is too long.")
+    private String recurrenceRule;
+
 }
@@ -31,7 +31,8 @@ public class EventResponse {
                 e.getRecurrenceEndDate(),
                 e.getParentEventId(),
                 e.isException(),
-                e.getOriginalDate()
+                e.getOriginalDate(),
+                e.getRecurrenceRule()
         );
     }
 
@@ -42,4 +43,5 @@ public class EventResponse {
     private Long parentEventId;
     private boolean isException;
     private LocalDate originalDate;
+    private String recurrenceRule;
 }
@@ -0,0 +1,12 @@
+package com.example.reminder.dto;
+
+import java.time.LocalDateTime;
+
+/** The searchable text of an event, for building the in-process search index. */
+public record EventTextRow(
+        Long id,
+        String title,
+        String description,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,37 @@
+package com.example.reminder.dto;
+
+import com.example.reminder.model.RecurrenceType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An event_occurrences row joined with the event it shows, read with a JPQL constructor expression.
+ */
+public record OccurrenceRow(
+        LocalDate occurrenceDate,
+        LocalDateTime reminderTime,
+        boolean expanded,
+        Long id,
+        String title,
+        String description,
+        RecurrenceType recurrenceType,
+        Integer recurrenceInterval,
+        LocalDate recurrenceEndDate,
+        Long parentEventId,
+        boolean isException,
+        LocalDate originalDate,
+        String recurrenceRule
+) {
+
+    // same shape as the expansion: expanded occurrences point at their master
+    public EventResponse toResponse() {
+        return expanded
+                ? new EventResponse(id, title, description, occurrenceDate, reminderTime,
+                        recurrenceType, recurrenceInterval, recurrenceEndDate,
+                        id, false, occurrenceDate, recurrenceRule)
+                : new EventResponse(id, title, description, occurrenceDate, reminderTime,
+                        recurrenceType, recurrenceInterval, recurrenceEndDate,
+                        parentEventId, isException, originalDate, recurrenceRule);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.reminder.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class ReminderDigestRequest {
+    @NotNull
+    private Boolean enabled;
+}
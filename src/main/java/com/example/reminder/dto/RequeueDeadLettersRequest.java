@@ -0,0 +1,16 @@
+package com.example.reminder.dto;
+
+import com.example.reminder.model.EmailKind;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RequeueDeadLettersRequest {
+    // explicit dead letters to requeue
+    private List<Long> ids;
+
+    // or every dead letter, optionally only of one kind
+    private boolean all;
+    private EmailKind kind;
+}
@@ -14,12 +14,14 @@ public class UserProfileResponse {
     private Long id;
     private String email;
     private Set<String> roles;
+    private boolean reminderDigest;
 
     public static UserProfileResponse fromEntity(User u) {
         return new UserProfileResponse(
                 u.getId(),
                 u.getEmail(),
-                u.getRolesAsString()
+                u.getRolesAsString(),
+                u.isReminderDigest()
         );
     }
 }
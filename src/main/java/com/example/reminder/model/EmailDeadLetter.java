@@ -0,0 +1,77 @@
+package com.example.reminder.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox email that could not be sent within max-attempts, or was rejected permanently.
+ * Kept with its full body so an admin can inspect it and requeue it to the outbox.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "email_dead_letter",
+       indexes = {
+        @Index (name = "idx_dead_letter_kind" , columnList="kind, deadAt")
+        }
+        )
+public class EmailDeadLetter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // id the mail had in the outbox
+    private Long outboxId;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailKind kind;
+
+    private Long eventId;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // when the mail was first enqueued
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime deadAt;
+
+    public static EmailDeadLetter fromOutbox(EmailOutbox row, int attempts, String lastError) {
+        EmailDeadLetter letter = new EmailDeadLetter();
+        letter.setOutboxId(row.getId());
+        letter.setRecipient(row.getRecipient());
+        letter.setSubject(row.getSubject());
+        letter.setBody(row.getBody());
+        letter.setKind(row.getKind());
+        letter.setEventId(row.getEventId());
+        letter.setAttempts(attempts);
+        letter.setLastError(lastError);
+        letter.setCreatedAt(row.getCreatedAt());
+        letter.setDeadAt(LocalDateTime.now());
+        return letter;
+    }
+
+    /** a fresh outbox row for this mail, attempts start over */
+    public EmailOutbox toOutbox() {
+        return new EmailOutbox(recipient, subject, body, kind, eventId);
+    }
+}
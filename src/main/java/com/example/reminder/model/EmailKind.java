@@ -0,0 +1,8 @@
+package com.example.reminder.model;
+
+public enum EmailKind {
+    REMINDER,
+    REMINDER_DIGEST,
+    VERIFY_EMAIL,
+    RESET_PASSWORD
+}
@@ -0,0 +1,79 @@
+package com.example.reminder.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting to be sent. Rows are written in the same transaction as the
+ * state change that triggers the mail and drained by EmailOutboxDispatcher.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "email_outbox",
+       indexes = {
+        @Index (name = "idx_outbox_due" , columnList="status, nextAttemptAt")
+        }
+        )
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailKind kind;
+
+    // source event for reminder mails
+    private Long eventId;
+
+    // reminderTime the mail is for (earliest one for digests), used to measure lateness
+    private LocalDateTime dueAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // dispatcher node sending this row, reclaimable after lockedUntil
+    private String lockedBy;
+    private LocalDateTime lockedUntil;
+
+    @CreationTimestamp
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public EmailOutbox(String recipient, String subject, String body, EmailKind kind, Long eventId) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.kind = kind;
+        this.eventId = eventId;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.reminder.model;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT
+}
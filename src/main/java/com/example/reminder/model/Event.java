@@ -21,15 +21,31 @@ import java.time.LocalDateTime;
 @Table(name = "events",
        indexes = {
         @Index (name = "idx_event_date" , columnList="eventDate") ,
-        @Index (name = "idx_event_title" , columnList="title")
+        @Index (name = "idx_event_title" , columnList="title") ,
+        @Index (name = "idx_event_reminder" , columnList="reminderSent, reminderTime") ,
+        // calendar: all of a user's rows up to the range end in one scan
+        @Index (name = "idx_event_user_date" , columnList="user_id, eventDate") ,
+        // upcoming / sent reminders of one user
+        @Index (name = "idx_event_user_reminder" , columnList="user_id, reminderSent, reminderTime") ,
+        // search index catch-up: rows changed since the last poll
+        @Index (name = "idx_event_updated" , columnList="updatedAt") ,
+        // keyset paging of all events by reminder time
+        @Index (name = "idx_event_reminder_time" , columnList="reminderTime") ,
+        // root lookups and re-rooting of scheduler-created occurrences
+        @Index (name = "idx_event_series_root" , columnList="seriesRootId")
         }
         )
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Event {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // pooled sequence (a table on MySQL): ids are reserved 50 at a time without a round trip per insert,
+    // and unlike IDENTITY they let Hibernate batch inserts. EventIdSequenceInitializer keeps it past max(id).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+    @SequenceGenerator(name = "event_seq", sequenceName = "events_seq", allocationSize = Event.ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
@@ -39,6 +55,10 @@ public class Event {
     private boolean reminderSent=false;
     private LocalDateTime reminderSentTime;
 
+    // scheduler node currently dispatching this reminder, the lease is reclaimable after leaseExpiry
+    private String leaseOwner;
+    private LocalDateTime leaseExpiry;
+
     @ManyToOne(fetch =  FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
@@ -63,4 +83,8 @@ public class Event {
 
     private String recurrenceRule;
 
+    // set on occurrences the scheduler creates for a series: the event the series started with,
+    // whose date anchors the next occurrences
+    private Long seriesRootId;
+
 }
@@ -0,0 +1,62 @@
+package com.example.reminder.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One calendar occurrence inside the materialised horizon, maintained by OccurrenceIndex.
+ * Singles and exceptions have one row on their own date, recurring masters one row per
+ * expanded occurrence, so calendar reads are a range scan on (userId, occurrenceDate).
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "event_occurrences",
+       uniqueConstraints = {
+        @UniqueConstraint(name = "uk_occurrence_event_date", columnNames = {"eventId", "occurrenceDate"})
+        },
+       indexes = {
+        @Index (name = "idx_occurrence_user_date" , columnList="userId, occurrenceDate") ,
+        @Index (name = "idx_occurrence_series" , columnList="seriesId")
+        }
+        )
+public class EventOccurrence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "occurrence_seq")
+    @SequenceGenerator(name = "occurrence_seq", sequenceName = "event_occurrences_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // the event row shown: the master itself for expanded occurrences
+    @Column(nullable = false)
+    private Long eventId;
+
+    // master the row belongs to (expanded occurrences and exceptions), null for single events
+    private Long seriesId;
+
+    @Column(nullable = false)
+    private LocalDate occurrenceDate;
+
+    private LocalDateTime reminderTime;
+
+    // true when generated from a recurring master, false for the event's own date
+    private boolean expanded;
+
+    public EventOccurrence(Long userId, Long eventId, Long seriesId, LocalDate occurrenceDate,
+                           LocalDateTime reminderTime, boolean expanded) {
+        this.userId = userId;
+        this.eventId = eventId;
+        this.seriesId = seriesId;
+        this.occurrenceDate = occurrenceDate;
+        this.reminderTime = reminderTime;
+        this.expanded = expanded;
+    }
+}
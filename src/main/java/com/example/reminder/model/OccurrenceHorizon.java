@@ -0,0 +1,44 @@
+package com.example.reminder.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The single row recording which dates event_occurrences is complete for, and which node
+ * currently holds the lease for building or extending it.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "occurrence_horizon")
+public class OccurrenceHorizon {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id = ID;
+
+    private LocalDate fromDate;
+
+    private LocalDate untilDate;
+
+    // range refreshes write, runs ahead of untilDate while the horizon is being extended
+    private LocalDate writeUntil;
+
+    // node extending the horizon, the lease is reclaimable after leaseExpiry
+    private String leaseOwner;
+    private LocalDateTime leaseExpiry;
+
+    public OccurrenceHorizon(LocalDate fromDate, LocalDate untilDate) {
+        this.fromDate = fromDate;
+        this.untilDate = untilDate;
+        this.writeUntil = untilDate;
+    }
+}
@@ -40,6 +40,15 @@ public class User {
     private String resetPasswordToken;
     private LocalDateTime resetPasswordTokenExpiry;
 
+    // opt-in: reminders due close together are sent as one digest email
+    private boolean reminderDigest = false;
+
+    // bumped by UserRepository.incrementDataVersions whenever the user's events or reminders change,
+    // never written through the entity so a stale User cannot move it backwards
+    @Column(name = "data_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint not null default 0")
+    private long dataVersion;
+
     // connect to mid-table (UserRole)
     @OneToMany(mappedBy = "user" , cascade = CascadeType.ALL , orphanRemoval = true)
     private Set<UserRole> userRoles = new HashSet<>();
@@ -0,0 +1,123 @@
+package com.example.reminder.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outbound mail budget: one global bucket plus one bucket per recipient domain,
+ * so a 09:00 burst is paced out instead of getting us throttled or greylisted.
+ * A mail needs a token from both; callers defer mails that are over budget.
+ *
+ * Per-domain budgets can be overridden with app.mail.rate.domain-overrides,
+ * e.g. "gmail.com=10:20,yahoo.com=2:5" (permits per second : burst).
+ */
+@Slf4j
+@Component
+public class MailRateLimiter {
+
+    private final TokenBucket global;
+    private final double domainPerSecond;
+    private final int domainBurst;
+    private final Map<String, double[]> domainOverrides;
+    private final Map<String, TokenBucket> domains = new ConcurrentHashMap<>();
+
+    private final Counter limitedByGlobal;
+    private final Counter limitedByDomain;
+
+    public MailRateLimiter(@Value("${app.mail.rate.global-per-second:20}") double globalPerSecond,
+                           @Value("${app.mail.rate.global-burst:40}") int globalBurst,
+                           @Value("${app.mail.rate.domain-per-second:5}") double domainPerSecond,
+                           @Value("${app.mail.rate.domain-burst:10}") int domainBurst,
+                           @Value("${app.mail.rate.domain-overrides:}") String domainOverrides,
+                           MeterRegistry registry) {
+        this.global = new TokenBucket(globalPerSecond, globalBurst);
+        this.domainPerSecond = domainPerSecond;
+        this.domainBurst = domainBurst;
+        this.domainOverrides = parseOverrides(domainOverrides);
+
+        this.limitedByGlobal = Counter.builder("reminder.mail.rate.limited")
+                .tag("scope", "global")
+                .description("Mails over the outbound rate budget")
+                .register(registry);
+        this.limitedByDomain = Counter.builder("reminder.mail.rate.limited")
+                .tag("scope", "domain")
+                .description("Mails over the outbound rate budget")
+                .register(registry);
+        Gauge.builder("reminder.mail.rate.domains", domains, Map::size)
+                .description("Recipient domains with an active rate bucket")
+                .register(registry);
+    }
+
+    /**
+     * take the global and the recipient domain token.
+     * @return 0 when the mail may be sent now, otherwise the nanos to wait before trying again
+     */
+    public long tryAcquire(String recipient) {
+        TokenBucket domain = domains.computeIfAbsent(domainOf(recipient), this::newDomainBucket);
+
+        long wait = domain.tryAcquire();
+        if (wait > 0) {
+            limitedByDomain.increment();
+            return wait;
+        }
+        wait = global.tryAcquire();
+        if (wait > 0) {
+            // the mail is not sent, don't charge its domain
+            domain.refund();
+            limitedByGlobal.increment();
+            return wait;
+        }
+        return 0;
+    }
+
+    /** global tokens available now, the outbox never claims more than this */
+    public int globalAvailable() {
+        return global.available();
+    }
+
+    // a full bucket is the same as a new one, drop it so rarely used domains don't accumulate
+    @Scheduled(fixedDelayString = "${app.mail.rate.evict-ms:60000}")
+    public void evictIdleDomains() {
+        domains.values().removeIf(TokenBucket::isFull);
+    }
+
+    private TokenBucket newDomainBucket(String domain) {
+        double[] override = domainOverrides.get(domain);
+        return (override != null)
+                ? new TokenBucket(override[0], (int) override[1])
+                : new TokenBucket(domainPerSecond, domainBurst);
+    }
+
+    static String domainOf(String recipient) {
+        int at = (recipient == null) ? -1 : recipient.lastIndexOf('@');
+        return (at < 0) ? "" : recipient.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, double[]> parseOverrides(String spec) {
+        Map<String, double[]> result = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return result;
+        }
+        for (String entry : spec.split(",")) {
+            String[] kv = entry.split("=");
+            String[] rate = (kv.length == 2) ? kv[1].split(":") : new String[0];
+            if (rate.length != 2) {
+                log.warn("Ignoring invalid mail rate override '{}', expected domain=perSecond:burst", entry);
+                continue;
+            }
+            result.put(kv[0].trim().toLowerCase(Locale.ROOT),
+                    new double[]{Double.parseDouble(rate[0].trim()), Double.parseDouble(rate[1].trim())});
+        }
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.reminder.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Stored as a single "theoretical arrival time" (GCRA): the instant at which the bucket
+ * would be full again. Taking a token moves it forward by one emission interval; the take is
+ * refused when that would put it more than burst intervals ahead of now. One CAS per acquire,
+ * no refill thread and no lock.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;   // time to earn one token
+    private final long burstNanos;      // how far ahead of now the bucket may be drawn
+    private final LongSupplier clock;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.clock = clock;
+        this.fullAt = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * take one token.
+     * @return 0 when granted, otherwise the nanos until a token will be available (nothing taken)
+     */
+    public long tryAcquire() {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** give back a token taken by tryAcquire that was not used */
+    public void refund() {
+        fullAt.addAndGet(-intervalNanos);
+    }
+
+    /** tokens that can be taken right now */
+    public int available() {
+        long used = Math.max(0, fullAt.get() - clock.getAsLong());
+        return (int) ((burstNanos - used) / intervalNanos);
+    }
+
+    /** true when the bucket has refilled completely, i.e. it carries no state worth keeping */
+    public boolean isFull() {
+        return fullAt.get() <= clock.getAsLong();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.reminder.recurrence;
+
+import com.example.reminder.model.RecurrenceType;
+
+import java.time.LocalDate;
+
+/**
+ * Ascending occurrence days of a series as epoch days, for a simple type/interval series
+ * (same closed form as {@link RecurrenceMath}) or an RRULE. Nothing is allocated per occurrence.
+ */
+public final class OccurrenceCursor {
+
+    public static final long END = RecurrenceRule.Cursor.END;
+
+    // set for RRULE series, the simple fields are unused then
+    private final RecurrenceRule.Cursor rule;
+
+    private final RecurrenceType type;
+    private final long start;
+    private final int interval;
+    private final long startMonth;   // year * 12 + month - 1
+    private final int startDom;
+    private final boolean repeats;
+    private long k;          // index of the next occurrence, -1 once exhausted
+
+    private OccurrenceCursor(RecurrenceRule.Cursor rule, RecurrenceType type, long start, int interval) {
+        this.rule = rule;
+        this.type = type;
+        this.start = start;
+        this.interval = interval;
+        int civil = RecurrenceRule.civil(start);
+        this.startMonth = (civil >> 9) * 12L + ((civil >> 5) & 15) - 1;
+        this.startDom = civil & 31;
+        this.repeats = type == RecurrenceType.DAILY || type == RecurrenceType.WEEKLY
+                || type == RecurrenceType.MONTHLY || type == RecurrenceType.YEARLY;
+    }
+
+    /** rule wins over type and interval when set, a non-positive interval counts as 1 */
+    public static OccurrenceCursor of(LocalDate start, RecurrenceType type, Integer interval, String rule) {
+        if (rule != null) {
+            return new OccurrenceCursor(RecurrenceRule.compile(rule).cursor(start), type, start.toEpochDay(), 1);
+        }
+        int i = (interval != null && interval > 0) ? interval : 1;
+        return new OccurrenceCursor(null, (type != null) ? type : RecurrenceType.NONE, start.toEpochDay(), i);
+    }
+
+    /** jump to the first occurrence on or after the given epoch day */
+    public void skipTo(long from) {
+        if (rule != null) {
+            rule.skipTo(from);
+            return;
+        }
+        if (from <= start || k < 0) {
+            return;
+        }
+        if (!repeats) {
+            // just the start date, which lies before from
+            k = -1;
+            return;
+        }
+        long first = switch (type) {
+            case DAILY -> ceilDiv(from - start, interval);
+            case WEEKLY -> ceilDiv(from - start, 7L * interval);
+            case MONTHLY, YEARLY -> {
+                // candidate lands in from's month or earlier, if it is still before from the next one is after it
+                int civil = RecurrenceRule.civil(from);
+                long months = (civil >> 9) * 12L + ((civil >> 5) & 15) - 1 - startMonth;
+                long candidate = months / monthStep();
+                yield (dayAt(candidate) < from) ? candidate + 1 : candidate;
+            }
+            default -> throw new IllegalStateException("Not a recurring type: " + type);
+        };
+        k = Math.max(k, first);
+    }
+
+    /** next occurrence as an epoch day, END when the series is exhausted */
+    public long nextEpochDay() {
+        if (rule != null) {
+            return rule.nextEpochDay();
+        }
+        if (k < 0) {
+            return END;
+        }
+        long day = dayAt(k);
+        k = repeats ? k + 1 : -1;
+        return day;
+    }
+
+    private long dayAt(long index) {
+        return switch (type) {
+            case DAILY -> start + index * interval;
+            case WEEKLY -> start + index * 7L * interval;
+            case MONTHLY, YEARLY -> {
+                long month = startMonth + index * monthStep();
+                int year = (int) Math.floorDiv(month, 12);
+                int m = (int) Math.floorMod(month, 12) + 1;
+                yield RecurrenceRule.epochDay(year, m, Math.min(startDom, RecurrenceRule.lengthOfMonth(year, m)));
+            }
+            default -> start;
+        };
+    }
+
+    private long monthStep() {
+        return (type == RecurrenceType.YEARLY) ? 12L * interval : interval;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+}
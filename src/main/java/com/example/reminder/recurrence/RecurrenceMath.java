@@ -0,0 +1,72 @@
+package com.example.reminder.recurrence;
+
+import com.example.reminder.model.RecurrenceType;
+
+import java.time.LocalDate;
+
+/**
+ * Closed-form occurrence arithmetic for simple recurring series.
+ *
+ * Occurrence k of a series is always derived from its start date (start + k * interval units),
+ * never from the previous occurrence, so month-end clamping does not drift:
+ * a monthly series on Jan 31 gives Feb 28/29, Mar 31, Apr 30, ...
+ * This lets calendar expansion jump straight to the first visible occurrence
+ * instead of stepping from a start date that may lie years in the past.
+ */
+public final class RecurrenceMath {
+
+    private RecurrenceMath() {
+    }
+
+    /** occurrence k (0 = the start date itself) */
+    public static LocalDate occurrence(LocalDate start, RecurrenceType type, int interval, long k) {
+        long steps = k * interval;
+        return switch (type) {
+            case DAILY -> start.plusDays(steps);
+            case WEEKLY -> start.plusWeeks(steps);
+            case MONTHLY -> start.plusMonths(steps);
+            case YEARLY -> start.plusYears(steps);
+            default -> start;
+        };
+    }
+
+    /** index of the first occurrence on or after from, 0 when the series starts on or after from */
+    public static long firstIndexOnOrAfter(LocalDate start, RecurrenceType type, int interval, LocalDate from) {
+        if (!start.isBefore(from)) {
+            return 0;
+        }
+        return switch (type) {
+            case DAILY -> ceilDiv(from.toEpochDay() - start.toEpochDay(), interval);
+            case WEEKLY -> ceilDiv(from.toEpochDay() - start.toEpochDay(), 7L * interval);
+            case MONTHLY -> firstMonthIndex(start, interval, from);
+            case YEARLY -> firstMonthIndex(start, 12 * interval, from);
+            default -> 0;
+        };
+    }
+
+    /** first occurrence on or after from */
+    public static LocalDate firstOnOrAfter(LocalDate start, RecurrenceType type, int interval, LocalDate from) {
+        return occurrence(start, type, interval, firstIndexOnOrAfter(start, type, interval, from));
+    }
+
+    /** first occurrence strictly after after */
+    public static LocalDate nextAfter(LocalDate start, RecurrenceType type, int interval, LocalDate after) {
+        return firstOnOrAfter(start, type, interval, after.plusDays(1));
+    }
+
+    // candidate k lands in from's month or earlier; if that occurrence is still before from,
+    // the next one is in a later month and therefore after it
+    private static long firstMonthIndex(LocalDate start, int intervalMonths, LocalDate from) {
+        long months = monthIndex(from) - monthIndex(start);
+        long k = months / intervalMonths;
+        return start.plusMonths(k * intervalMonths).isBefore(from) ? k + 1 : k;
+    }
+
+    private static long monthIndex(LocalDate d) {
+        return d.getYear() * 12L + d.getMonthValue() - 1;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+}
@@ -0,0 +1,615 @@
+package com.example.reminder.recurrence;
+
+import com.example.reminder.model.RecurrenceType;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled RFC 5545 RRULE: FREQ (DAILY, WEEKLY, MONTHLY, YEARLY), INTERVAL, COUNT, UNTIL,
+ * BYDAY (with ordinals for MONTHLY / YEARLY), BYMONTHDAY and BYSETPOS. Weeks start on Monday.
+ *
+ * The rule is parsed once into an immutable plan (see compile(), which caches by rule string).
+ * Occurrences come from a {@link Cursor} that works on epoch days with preallocated buffers,
+ * so stepping through a series allocates nothing.
+ *
+ * Like the RFC, dates that don't exist in a period are skipped rather than clamped:
+ * FREQ=MONTHLY from Jan 31 gives Jan 31, Mar 31, May 31, ...
+ * The start date (DTSTART) is always the first occurrence and counts towards COUNT,
+ * even when the rule itself would not select it.
+ */
+public final class RecurrenceRule {
+
+    // a rule with no occurrence in this many periods in a row is treated as exhausted
+    private static final int MAX_EMPTY_PERIODS = 4000;
+    private static final int MAX_CACHED_RULES = 10_000;
+    private static final Map<String, RecurrenceRule> CACHE = new ConcurrentHashMap<>();
+
+    private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+
+    private final String text;
+    private final RecurrenceType frequency;
+    private final int interval;
+    private final int count;            // 0 = unbounded
+    private final long untilEpochDay;   // Long.MAX_VALUE = none
+    private final int byDayMask;        // bit per weekday (MO = bit 0) for plain BYDAY entries
+    private final int[] byDayOrdinal;   // BYDAY entries with an ordinal, e.g. -1FR
+    private final int[] byDayOrdinalDay;
+    private final int[] byMonthDay;
+    private final int[] bySetPos;
+
+    private RecurrenceRule(String text, RecurrenceType frequency, int interval, int count, long untilEpochDay,
+                           int byDayMask, int[] byDayOrdinal, int[] byDayOrdinalDay,
+                           int[] byMonthDay, int[] bySetPos) {
+        this.text = text;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.untilEpochDay = untilEpochDay;
+        this.byDayMask = byDayMask;
+        this.byDayOrdinal = byDayOrdinal;
+        this.byDayOrdinalDay = byDayOrdinalDay;
+        this.byMonthDay = byMonthDay;
+        this.bySetPos = bySetPos;
+    }
+
+    /** parse through a shared cache, rules are immutable */
+    public static RecurrenceRule compile(String rule) {
+        String key = normalize(rule);
+        RecurrenceRule cached = CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        RecurrenceRule parsed = parse(key);
+        if (CACHE.size() >= MAX_CACHED_RULES) {
+            CACHE.clear();
+        }
+        CACHE.put(key, parsed);
+        return parsed;
+    }
+
+    /** @throws IllegalArgumentException for malformed or unsupported rules */
+    public static RecurrenceRule parse(String rule) {
+        String text = normalize(rule);
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Empty recurrence rule");
+        }
+
+        RecurrenceType frequency = null;
+        int interval = 1;
+        int count = 0;
+        long until = Long.MAX_VALUE;
+        int byDayMask = 0;
+        int[] ordinals = new int[0];
+        int[] ordinalDays = new int[0];
+        int[] byMonthDay = new int[0];
+        int[] bySetPos = new int[0];
+
+        for (String part : text.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0 || eq == part.length() - 1) {
+                throw new IllegalArgumentException("Malformed rule part: " + part);
+            }
+            String name = part.substring(0, eq);
+            String value = part.substring(eq + 1);
+            switch (name) {
+                case "FREQ" -> frequency = switch (value) {
+                    case "DAILY" -> RecurrenceType.DAILY;
+                    case "WEEKLY" -> RecurrenceType.WEEKLY;
+                    case "MONTHLY" -> RecurrenceType.MONTHLY;
+                    case "YEARLY" -> RecurrenceType.YEARLY;
+                    default -> throw new IllegalArgumentException("Unsupported FREQ: " + value);
+                };
+                case "INTERVAL" -> interval = parseInt(name, value, 1, 10_000);
+                case "COUNT" -> count = parseInt(name, value, 1, 100_000);
+                case "UNTIL" -> until = parseUntil(value);
+                case "BYDAY" -> {
+                    String[] days = value.split(",");
+                    int[] o = new int[days.length];
+                    int[] d = new int[days.length];
+                    int n = 0;
+                    for (String day : days) {
+                        if (day.length() < 2) {
+                            throw new IllegalArgumentException("Malformed BYDAY: " + day);
+                        }
+                        int dow = dayCode(day.substring(day.length() - 2));
+                        String ordinal = day.substring(0, day.length() - 2);
+                        if (ordinal.isEmpty()) {
+                            byDayMask |= 1 << dow;
+                        } else {
+                            int ord = parseInt("BYDAY", ordinal.startsWith("+") ? ordinal.substring(1) : ordinal,
+                                    -53, 53);
+                            if (ord == 0) {
+                                throw new IllegalArgumentException("BYDAY ordinal cannot be 0");
+                            }
+                            o[n] = ord;
+                            d[n] = dow;
+                            n++;
+                        }
+                    }
+                    ordinals = Arrays.copyOf(o, n);
+                    ordinalDays = Arrays.copyOf(d, n);
+                }
+                case "BYMONTHDAY" -> byMonthDay = parseList(name, value, 31);
+                case "BYSETPOS" -> bySetPos = parseList(name, value, 366);
+                case "WKST" -> {
+                    if (!value.equals("MO")) {
+                        throw new IllegalArgumentException("Only WKST=MO is supported");
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported rule part: " + name);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("FREQ is required");
+        }
+        if (count > 0 && until != Long.MAX_VALUE) {
+            throw new IllegalArgumentException("COUNT and UNTIL cannot both be set");
+        }
+        if (ordinals.length > 0 && frequency != RecurrenceType.MONTHLY && frequency != RecurrenceType.YEARLY) {
+            throw new IllegalArgumentException("BYDAY ordinals need FREQ=MONTHLY or FREQ=YEARLY");
+        }
+        if (byMonthDay.length > 0 && frequency == RecurrenceType.WEEKLY) {
+            throw new IllegalArgumentException("BYMONTHDAY cannot be used with FREQ=WEEKLY");
+        }
+
+        return new RecurrenceRule(text, frequency, interval, count, until,
+                byDayMask, ordinals, ordinalDays, byMonthDay, bySetPos);
+    }
+
+    public RecurrenceType getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    /** 0 when the rule has no COUNT */
+    public int getCount() {
+        return count;
+    }
+
+    /** null when the rule has no UNTIL */
+    public LocalDate getUntil() {
+        return (untilEpochDay == Long.MAX_VALUE) ? null : LocalDate.ofEpochDay(untilEpochDay);
+    }
+
+    public Cursor cursor(LocalDate start) {
+        return new Cursor(start.toEpochDay());
+    }
+
+    /** first occurrence of the series starting at start that is after the given date, null if there is none */
+    public LocalDate nextAfter(LocalDate start, LocalDate after) {
+        Cursor cursor = cursor(start);
+        cursor.skipTo(after.plusDays(1));
+        return cursor.next();
+    }
+
+    /** occurrences of the series starting at start that lie before the given date */
+    public int countBefore(LocalDate start, LocalDate before) {
+        Cursor cursor = cursor(start);
+        long end = before.toEpochDay();
+        int n = 0;
+        for (long day = cursor.nextEpochDay(); day != Cursor.END && day < end; day = cursor.nextEpochDay()) {
+            n++;
+        }
+        return n;
+    }
+
+    /** the same rule with COUNT replaced, for the later part of a split series */
+    public RecurrenceRule withCount(int newCount) {
+        if (count == 0) {
+            throw new IllegalStateException("Rule has no COUNT: " + text);
+        }
+        StringBuilder rule = new StringBuilder();
+        for (String part : text.split(";")) {
+            if (!rule.isEmpty()) {
+                rule.append(';');
+            }
+            rule.append(part.startsWith("COUNT=") ? "COUNT=" + newCount : part);
+        }
+        return compile(rule.toString());
+    }
+
+    /** last occurrence for rules with COUNT or UNTIL, null for unbounded rules */
+    public LocalDate lastOccurrence(LocalDate start) {
+        if (count == 0 && untilEpochDay == Long.MAX_VALUE) {
+            return null;
+        }
+        Cursor cursor = cursor(start);
+        long last = Cursor.END;
+        for (long day = cursor.nextEpochDay(); day != Cursor.END; day = cursor.nextEpochDay()) {
+            last = day;
+        }
+        return (last == Cursor.END) ? null : LocalDate.ofEpochDay(last);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * Lazily generated occurrences of one series, not thread safe.
+     * Each period (day, week, month or year) is expanded into a sorted candidate buffer,
+     * BYSETPOS picks from it, and candidates are handed out one by one.
+     */
+    public final class Cursor {
+
+        public static final long END = Long.MIN_VALUE;
+
+        private final long start;
+        private final int startDow;
+        private final int startDom;
+        private final int startMonth;
+        private final long[] candidates = new long[366];
+        private final long[] selected = new long[366];
+
+        private long floor;       // nothing before this is returned
+        private long period;      // epoch day (DAILY), monday (WEEKLY), month index (MONTHLY) or year (YEARLY)
+        private int size;
+        private int pos;
+        private int emitted;
+        private boolean done;
+        private boolean startPending = true;   // DTSTART not handed out yet
+
+        private Cursor(long start) {
+            this.start = start;
+            this.floor = start;
+            int civil = civil(start);
+            this.startDom = civil & 31;
+            this.startMonth = (civil >> 5) & 15;
+            this.startDow = dayOfWeek(start);
+            this.period = switch (frequency) {
+                case DAILY -> start;
+                case WEEKLY -> start - startDow;
+                case MONTHLY -> (civil >> 9) * 12L + startMonth - 1;
+                default -> civil >> 9;
+            };
+        }
+
+        /**
+         * jump to the first period that can contain from, so old series are not walked from their start.
+         * With COUNT every earlier occurrence has to be counted, so the series is walked instead
+         */
+        public void skipTo(LocalDate from) {
+            skipTo(from.toEpochDay());
+        }
+
+        public void skipTo(long target) {
+            if (target <= floor) {
+                return;
+            }
+            if (count > 0) {
+                while (!done && peek() != END && peek() < target) {
+                    nextEpochDay();
+                }
+                return;
+            }
+            floor = target;
+            long targetPeriod = switch (frequency) {
+                case DAILY -> target;
+                case WEEKLY -> target - dayOfWeek(target);
+                case MONTHLY -> {
+                    int civil = civil(target);
+                    yield (civil >> 9) * 12L + ((civil >> 5) & 15) - 1;
+                }
+                default -> civil(target) >> 9;
+            };
+            long step = (frequency == RecurrenceType.WEEKLY) ? 7L * interval : interval;
+            if (targetPeriod > period) {
+                long periods = (targetPeriod - period) / step;
+                if (periods > 0) {
+                    period += periods * step;
+                    size = 0;
+                    pos = 0;
+                }
+            }
+        }
+
+        /** next occurrence as an epoch day, END when the series is exhausted */
+        public long nextEpochDay() {
+            long day = peek();
+            if (day != END) {
+                if (startPending) {
+                    // the rule may select the start date as well, it must not come out twice
+                    startPending = false;
+                    floor = Math.max(floor, start + 1);
+                } else {
+                    pos++;
+                }
+                emitted++;
+            }
+            return day;
+        }
+
+        /** next occurrence, null when the series is exhausted */
+        public LocalDate next() {
+            long day = nextEpochDay();
+            return (day == END) ? null : LocalDate.ofEpochDay(day);
+        }
+
+        private long peek() {
+            if (done) {
+                return END;
+            }
+            if (count > 0 && emitted >= count) {
+                done = true;
+                return END;
+            }
+            if (startPending) {
+                if (start >= floor && start <= untilEpochDay) {
+                    return start;
+                }
+                startPending = false;
+            }
+            int empty = 0;
+            while (true) {
+                while (pos < size) {
+                    long day = selected[pos];
+                    if (day > untilEpochDay) {
+                        done = true;
+                        return END;
+                    }
+                    if (day >= floor) {
+                        return day;
+                    }
+                    pos++;
+                }
+                if (size > 0 || pos > 0) {
+                    advance();
+                }
+                expand();
+                if (size == 0 && ++empty > MAX_EMPTY_PERIODS) {
+                    done = true;
+                    return END;
+                }
+                if (firstDayOf(period) > untilEpochDay) {
+                    done = true;
+                    return END;
+                }
+                if (size == 0) {
+                    advance();
+                }
+            }
+        }
+
+        private void advance() {
+            period += (frequency == RecurrenceType.WEEKLY) ? 7L * interval : interval;
+            size = 0;
+            pos = 0;
+        }
+
+        private long firstDayOf(long p) {
+            return switch (frequency) {
+                case DAILY, WEEKLY -> p;
+                case MONTHLY -> epochDay((int) Math.floorDiv(p, 12), (int) Math.floorMod(p, 12) + 1, 1);
+                default -> epochDay((int) p, 1, 1);
+            };
+        }
+
+        // candidates of the current period, ascending, then BYSETPOS
+        private void expand() {
+            int n = 0;
+            switch (frequency) {
+                case DAILY -> {
+                    if (matchesWeekday(dayOfWeek(period))
+                            && (byMonthDay.length == 0 || matchesMonthDay(civil(period) & 31, monthLength(period)))) {
+                        candidates[n++] = period;
+                    }
+                }
+                case WEEKLY -> {
+                    int mask = (byDayMask == 0) ? 1 << startDow : byDayMask;
+                    for (int dow = 0; dow < 7; dow++) {
+                        if ((mask & (1 << dow)) != 0) {
+                            candidates[n++] = period + dow;
+                        }
+                    }
+                }
+                case MONTHLY -> {
+                    int year = (int) Math.floorDiv(period, 12);
+                    int month = (int) Math.floorMod(period, 12) + 1;
+                    long first = epochDay(year, month, 1);
+                    int length = lengthOfMonth(year, month);
+                    if (!hasDayFilter()) {
+                        if (startDom <= length) {
+                            candidates[n++] = first + startDom - 1;
+                        }
+                    } else {
+                        int firstDow = dayOfWeek(first);
+                        for (int dom = 1; dom <= length; dom++) {
+                            if (matchesDay(dom, length, (firstDow + dom - 1) % 7, dom, length)) {
+                                candidates[n++] = first + dom - 1;
+                            }
+                        }
+                    }
+                }
+                default -> {
+                    int year = (int) period;
+                    long first = epochDay(year, 1, 1);
+                    if (!hasDayFilter()) {
+                        if (startDom <= lengthOfMonth(year, startMonth)) {
+                            candidates[n++] = epochDay(year, startMonth, startDom);
+                        }
+                    } else {
+                        int yearLength = isLeap(year) ? 366 : 365;
+                        int firstDow = dayOfWeek(first);
+                        int doy = 1;
+                        for (int month = 1; month <= 12; month++) {
+                            int length = lengthOfMonth(year, month);
+                            for (int dom = 1; dom <= length; dom++, doy++) {
+                                // without BYMONTH, BYDAY ordinals count within the year
+                                if (matchesDay(dom, length, (firstDow + doy - 1) % 7, doy, yearLength)) {
+                                    candidates[n++] = first + doy - 1;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (bySetPos.length == 0) {
+                System.arraycopy(candidates, 0, selected, 0, n);
+                size = n;
+            } else {
+                int m = 0;
+                for (int i = 0; i < n; i++) {
+                    for (int setPos : bySetPos) {
+                        if ((setPos > 0 ? setPos - 1 : n + setPos) == i) {
+                            selected[m++] = candidates[i];
+                            break;
+                        }
+                    }
+                }
+                size = m;
+            }
+            pos = 0;
+        }
+    }
+
+    private boolean hasDayFilter() {
+        return byDayMask != 0 || byDayOrdinal.length > 0 || byMonthDay.length > 0;
+    }
+
+    private boolean matchesWeekday(int dow) {
+        return byDayMask == 0 || (byDayMask & (1 << dow)) != 0;
+    }
+
+    // index / periodLength: position of the day within the ordinal's period (month or year)
+    private boolean matchesDay(int dom, int monthLength, int dow, int index, int periodLength) {
+        if (byMonthDay.length > 0 && !matchesMonthDay(dom, monthLength)) {
+            return false;
+        }
+        if (byDayMask == 0 && byDayOrdinal.length == 0) {
+            return true;
+        }
+        if ((byDayMask & (1 << dow)) != 0) {
+            return true;
+        }
+        for (int i = 0; i < byDayOrdinal.length; i++) {
+            if (byDayOrdinalDay[i] != dow) {
+                continue;
+            }
+            int ordinal = byDayOrdinal[i];
+            int nth = (ordinal > 0) ? (index - 1) / 7 + 1 : -((periodLength - index) / 7 + 1);
+            if (nth == ordinal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesMonthDay(int dom, int monthLength) {
+        for (int d : byMonthDay) {
+            if (d == dom || monthLength + d + 1 == dom) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException("Empty recurrence rule");
+        }
+        String text = rule.trim().toUpperCase();
+        return text.startsWith("RRULE:") ? text.substring(6) : text;
+    }
+
+    private static int parseInt(String name, String value, int min, int max) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n < min || n > max) {
+                throw new IllegalArgumentException(name + " out of range: " + value);
+            }
+            return n;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed " + name + ": " + value);
+        }
+    }
+
+    private static int[] parseList(String name, String value, int max) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = parseInt(name, parts[i].startsWith("+") ? parts[i].substring(1) : parts[i], -max, max);
+            if (values[i] == 0) {
+                throw new IllegalArgumentException(name + " cannot contain 0");
+            }
+        }
+        return values;
+    }
+
+    // YYYYMMDD or YYYYMMDDTHHMMSS[Z], only the date matters for day-based events
+    private static long parseUntil(String value) {
+        if (value.length() < 8) {
+            throw new IllegalArgumentException("Malformed UNTIL: " + value);
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(value.substring(0, 4)), Integer.parseInt(value.substring(4, 6)),
+                    Integer.parseInt(value.substring(6, 8))).toEpochDay();
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Malformed UNTIL: " + value);
+        }
+    }
+
+    private static int dayCode(String code) {
+        for (int i = 0; i < DAY_CODES.length; i++) {
+            if (DAY_CODES[i].equals(code)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown weekday: " + code);
+    }
+
+    // --- calendar arithmetic on epoch days, no LocalDate instances on the hot path ---
+
+    /** 0 = Monday */
+    static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7);
+    }
+
+    static long epochDay(int year, int month, int day) {
+        long y = (month <= 2) ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /** packed year << 9 | month << 5 | day */
+    static int civil(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+        return (year << 9) | (month << 5) | day;
+    }
+
+    private static int monthLength(long epochDay) {
+        int civil = civil(epochDay);
+        return lengthOfMonth(civil >> 9, (civil >> 5) & 15);
+    }
+
+    static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+}
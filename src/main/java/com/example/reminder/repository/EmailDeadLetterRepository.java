@@ -0,0 +1,20 @@
+package com.example.reminder.repository;
+
+import com.example.reminder.model.EmailDeadLetter;
+import com.example.reminder.model.EmailKind;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+
+    Page<EmailDeadLetter> findByKind(@Param("kind") EmailKind kind, Pageable pageable);
+
+    // kind null = all kinds
+    @Query("SELECT d.id FROM EmailDeadLetter d WHERE (:kind IS NULL OR d.kind = :kind) ORDER BY d.id")
+    List<Long> findIds(@Param("kind") EmailKind kind, Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package com.example.reminder.repository;
+
+import com.example.reminder.model.EmailOutbox;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // due rows plus rows of a dispatcher that died while sending, locked rows are skipped (MySQL 8)
+    @Query(value = "SELECT id FROM email_outbox WHERE " +
+            "(status = 'PENDING' AND next_attempt_at <= :now) " +
+            "OR (status = 'SENDING' AND locked_until < :now) " +
+            "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true , flushAutomatically = true)
+    @Query("UPDATE EmailOutbox o SET o.status = com.example.reminder.model.EmailOutboxStatus.SENDING , " +
+            "o.lockedBy = :owner , o.lockedUntil = :until WHERE o.id IN :ids")
+    int markSending(@Param("ids") List<Long> ids, @Param("owner") String owner,
+                    @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = com.example.reminder.model.EmailOutboxStatus.SENT , " +
+            "o.sentAt = :now , o.attempts = o.attempts + 1 , o.lockedBy = null , o.lockedUntil = null " +
+            "WHERE o.id = :id")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = com.example.reminder.model.EmailOutboxStatus.PENDING , " +
+            "o.attempts = o.attempts + 1 , o.nextAttemptAt = :nextAttemptAt , o.lastError = :error , " +
+            "o.lockedBy = null , o.lockedUntil = null WHERE o.id = :id")
+    int scheduleRetry(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = com.example.reminder.model.EmailOutboxStatus.PENDING , " +
+            "o.nextAttemptAt = :nextAttemptAt , o.lockedBy = null , o.lockedUntil = null WHERE o.id = :id")
+    int releaseToPending(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox o WHERE o.status = com.example.reminder.model.EmailOutboxStatus.SENT " +
+            "AND o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,55 @@
+package com.example.reminder.repository;
+
+import com.example.reminder.dto.OccurrenceRow;
+import com.example.reminder.model.EventOccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventOccurrenceRepository extends JpaRepository<EventOccurrence, Long> {
+
+    // range scan on (userId, occurrenceDate), events joined by primary key
+    @Query("SELECT new com.example.reminder.dto.OccurrenceRow(" +
+            " o.occurrenceDate, o.reminderTime, o.expanded," +
+            " e.id, e.title, e.description, e.recurrenceType, e.recurrenceInterval, e.recurrenceEndDate," +
+            " e.parentEventId, e.isException, e.originalDate, e.recurrenceRule)" +
+            " FROM EventOccurrence o JOIN Event e ON e.id = o.eventId" +
+            " WHERE o.userId = :userId AND o.occurrenceDate BETWEEN :start AND :end")
+    List<OccurrenceRow> findRows(@Param("userId") Long userId,
+                                 @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // answered from idx_occurrence_user_date alone
+    @Query("SELECT DISTINCT o.occurrenceDate FROM EventOccurrence o" +
+            " WHERE o.userId = :userId AND o.occurrenceDate BETWEEN :start AND :end")
+    List<LocalDate> findBusyDates(@Param("userId") Long userId,
+                                  @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Modifying
+    @Query("DELETE FROM EventOccurrence o WHERE o.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("DELETE FROM EventOccurrence o WHERE o.eventId IN :eventIds")
+    int deleteByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    @Modifying
+    @Query("DELETE FROM EventOccurrence o WHERE o.seriesId = :seriesId")
+    int deleteBySeriesId(@Param("seriesId") Long seriesId);
+
+    @Modifying
+    @Query("DELETE FROM EventOccurrence o WHERE o.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM EventOccurrence o WHERE o.eventId IN :eventIds" +
+            " AND o.occurrenceDate BETWEEN :from AND :until")
+    int deleteByEventIdsBetween(@Param("eventIds") Collection<Long> eventIds,
+                                @Param("from") LocalDate from, @Param("until") LocalDate until);
+}
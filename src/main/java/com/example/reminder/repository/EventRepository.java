@@ -1,25 +1,43 @@
 package com.example.reminder.repository;
 
+import com.example.reminder.dto.CalendarEventRow;
+import com.example.reminder.dto.EventResponse;
+import com.example.reminder.dto.EventTextRow;
 import com.example.reminder.model.Event;
 import com.example.reminder.model.User;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
 
     List<Event> findByUser(@Param("user") User user);
 
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the whole result set
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.example.reminder.dto.EventResponse(" +
+            " e.id, e.title, e.description, e.eventDate, e.reminderTime," +
+            " e.recurrenceType, e.recurrenceInterval, e.recurrenceEndDate," +
+            " e.parentEventId, e.isException, e.originalDate, e.recurrenceRule)" +
+            " FROM Event e WHERE e.user.id = :userId ORDER BY e.id")
+    Stream<EventResponse> streamResponsesByUser(@Param("userId") Long userId);
+
     Page<Event> findByUser(@Param("user") User user, Pageable pageable);
 
     Page<Event> findAll(Pageable pageable);
@@ -57,8 +75,61 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     Page<Event> findAllEventsAndAfterDate(@Param("date")LocalDate date ,
                                        Pageable pageable);
 
-    @Query("SELECT e FROM Event e WHERE e.reminderSent = false AND e.reminderTime <= :now ")
-    List<Event> findPendingReminders(@Param("now") LocalDateTime now);
+    // search narrowed by EventSearchIndex: candidate ids, or rows changed since its last poll
+    @Query("SELECT e FROM Event e WHERE (e.id IN :ids OR e.updatedAt >= :since) AND e.user=:user " +
+            "AND (LOWER(title) LIKE :search OR " +
+            "LOWER(description) LIKE :search)")
+    Page<Event> findByUserAndIdsAndSearch(@Param("user") User user, @Param("ids") Collection<Long> ids,
+                                          @Param("since") LocalDateTime since,
+                                          @Param("search") String search, Pageable pageable);
+
+    @Query("SELECT e FROM Event e WHERE (e.id IN :ids OR e.updatedAt >= :since) AND e.user=:user" +
+            " AND e.eventDate >= :date " +
+            "AND (LOWER(title) LIKE :search OR " +
+            "LOWER(description) LIKE :search)")
+    Page<Event> findByUserAndIdsAndAfterDateAndSearch(@Param("user") User user, @Param("ids") Collection<Long> ids,
+                                                      @Param("since") LocalDateTime since,
+                                                      @Param("date") LocalDate date,
+                                                      @Param("search") String search, Pageable pageable);
+
+    @Query("SELECT e FROM Event e WHERE (e.id IN :ids OR e.updatedAt >= :since) " +
+            "AND (LOWER(title) LIKE :search OR " +
+            "LOWER(description) LIKE :search)")
+    Page<Event> findAllEventsByIdsAndSearch(@Param("ids") Collection<Long> ids,
+                                            @Param("since") LocalDateTime since,
+                                            @Param("search") String search, Pageable pageable);
+
+    @Query("SELECT e FROM Event e WHERE (e.id IN :ids OR e.updatedAt >= :since) AND e.eventDate >= :date " +
+            "AND (LOWER(title) LIKE :search OR " +
+            "LOWER(description) LIKE :search)")
+    Page<Event> findAllEventsByIdsAndAfterDateAndSearch(@Param("ids") Collection<Long> ids,
+                                                        @Param("since") LocalDateTime since,
+                                                        @Param("date") LocalDate date,
+                                                        @Param("search") String search, Pageable pageable);
+
+    // InnoDB's row estimate from table statistics, constant time instead of COUNT(*)
+    @Query(value = "SELECT TABLE_ROWS FROM information_schema.TABLES" +
+            " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'events'", nativeQuery = true)
+    Number estimateRowCount();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.example.reminder.dto.EventTextRow(e.id, e.title, e.description, e.updatedAt)" +
+            " FROM Event e")
+    Stream<EventTextRow> streamTextRows();
+
+    @Query("SELECT new com.example.reminder.dto.EventTextRow(e.id, e.title, e.description, e.updatedAt)" +
+            " FROM Event e WHERE e.updatedAt >= :since")
+    List<EventTextRow> findTextRowsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // (id, reminderTime) pairs only, used to fill the reminder wheel
+    @Query("SELECT e.id, e.reminderTime FROM Event e WHERE e.reminderSent = false " +
+            "AND e.reminderTime <= :until ")
+    List<Object[]> findPendingReminderTimesUntil(@Param("until") LocalDateTime until);
+
+    @Query("SELECT e.id, e.reminderTime FROM Event e WHERE e.reminderSent = false " +
+            "AND e.reminderTime > :from AND e.reminderTime <= :until ")
+    List<Object[]> findPendingReminderTimesBetween(@Param("from") LocalDateTime from,
+                                                   @Param("until") LocalDateTime until);
 
     @Query("SELECT e FROM Event e WHERE e.user=:user AND e.reminderSent = false AND " +
                                     "e.reminderTime <= :threshold  AND e.reminderTime >= :now ")
@@ -70,10 +141,42 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findAllSentReminders(@Param("user") User user, @Param("now") LocalDateTime now,
                                          @Param("threshold")LocalDateTime threshold);
 
+    // keyset page of reminders due up to :dueUntil after (afterTime, afterId)
+    // MySQL 8: rows locked by another node are skipped instead of waited for
+    @Query(value = "SELECT id, reminder_time FROM events WHERE reminder_sent = false AND reminder_time <= :dueUntil " +
+            "AND (reminder_time > :afterTime OR (reminder_time = :afterTime AND id > :afterId)) " +
+            "AND (lease_expiry IS NULL OR lease_expiry < :now) " +
+            "ORDER BY reminder_time, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Object[]> lockDueReminders(@Param("now") LocalDateTime now, @Param("dueUntil") LocalDateTime dueUntil,
+                                    @Param("afterTime") LocalDateTime afterTime, @Param("afterId") long afterId,
+                                    @Param("limit") int limit);
+
     @Modifying(clearAutomatically = true , flushAutomatically = true)
-    @Query("UPDATE Event e SET reminderSent=true , reminderSentTime=now() WHERE e.id in :ids")
+    @Query("UPDATE Event e SET leaseOwner=:owner , leaseExpiry=:expiry WHERE e.id in :ids")
+    int leaseReminders(@Param("ids") List<Long> ids, @Param("owner") String owner,
+                       @Param("expiry") LocalDateTime expiry);
+
+    // digest users: the user's other unleased reminders due up to :until, so they go out in the same email
+    @Query(value = "SELECT id FROM events WHERE user_id = :userId AND reminder_sent = false " +
+            "AND reminder_time <= :until AND (lease_expiry IS NULL OR lease_expiry < :now) " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPendingReminderIdsOfUser(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                            @Param("until") LocalDateTime until);
+
+    @Query("SELECT e FROM Event e JOIN FETCH e.user WHERE e.id IN :ids AND e.leaseOwner = :owner " +
+            "AND e.reminderSent = false ORDER BY e.reminderTime, e.id")
+    List<Event> findLeasedReminders(@Param("ids") List<Long> ids, @Param("owner") String owner);
+
+    @Modifying(clearAutomatically = true , flushAutomatically = true)
+    @Query("UPDATE Event e SET reminderSent=true , reminderSentTime=now() , leaseOwner=null , leaseExpiry=null " +
+            "WHERE e.id in :ids")
     int markRemindersSentByIds(@Param("ids") List<Long> ids);
 
+    // only what a claim could take now, rows leased by a node are in flight already
+    @Query("SELECT COUNT(e) FROM Event e WHERE e.reminderSent = false AND e.reminderTime < :before " +
+            "AND (e.leaseExpiry IS NULL OR e.leaseExpiry < :now)")
+    long countClaimableRemindersBefore(@Param("before") LocalDateTime before, @Param("now") LocalDateTime now);
+
     @Query("SELECT COUNT(e) FROM Event e WHERE e.reminderSent = true")
     Long countByReminderSentTrue();
 
@@ -101,28 +204,51 @@ public interface EventRepository extends JpaRepository<Event, Long> {
             ,@Param("start") LocalDate start ,@Param("end") LocalDate end);
 
 
-    @Query("SELECT e from Event e where e.user = :user " +
-            " AND e.isException = false AND e.recurrenceType = 'NONE'" +
-            " AND e.eventDate between :start AND :end ")
-    List<Event> findSinglesInRange(@Param("user") User user
-            ,@Param("start") LocalDate start ,@Param("end") LocalDate end);
-
-    @Query("SELECT e from Event e where e.user = :user " +
-            " AND e.isException = false AND e.recurrenceType <> 'NONE' AND e.eventDate <= :end " +
-            " AND (e.recurrenceEndDate is null OR e.recurrenceEndDate >= :start ) ")
-    List<Event> findRecurringMasterAffectingRange(@Param("user") User user
-            ,@Param("start") LocalDate start ,@Param("end") LocalDate end);
-
-    @Query("SELECT e from Event e where e.user = :user " +
-            " AND e.isException = true " +
-            " AND e.eventDate between :start AND :end ")
-    List<Event> findExceptionsInRange(@Param("user") User user
-            ,@Param("start") LocalDate start ,@Param("end") LocalDate end);
+    // singles and exceptions dated in the range, exceptions replacing an occurrence in the range
+    // and recurring masters overlapping it, in one round trip. occurrences the scheduler created for
+    // a series are left out while the series root exists, its expansion shows them.
+    // uses user_id directly, so the users table is not joined
+    @Query("SELECT new com.example.reminder.dto.CalendarEventRow(" +
+            " e.id, e.title, e.description, e.eventDate, e.reminderTime," +
+            " e.recurrenceType, e.recurrenceInterval, e.recurrenceEndDate," +
+            " e.parentEventId, e.isException, e.originalDate, e.recurrenceRule)" +
+            " FROM Event e WHERE e.user.id = :userId AND (" +
+            " (e.eventDate between :start AND :end AND (e.isException = true OR e.recurrenceType = 'NONE'))" +
+            " OR (e.isException = true AND e.originalDate between :start AND :end)" +
+            " OR (e.isException = false AND e.recurrenceType <> 'NONE' AND e.eventDate <= :end" +
+            " AND (e.recurrenceEndDate is null OR e.recurrenceEndDate >= :start)" +
+            " AND (e.seriesRootId is null OR NOT EXISTS (SELECT r.id FROM Event r WHERE r.id = e.seriesRootId))))")
+    List<CalendarEventRow> findCalendarRows(@Param("userId") Long userId,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
 
 
     Optional<Event> findByParentEventIdAndOriginalDate(@Param("parentEventId") Long parentEventId,
                                                        @Param("originalDate") LocalDate originalDate);
 
+    @Query("SELECT e FROM Event e WHERE e.isException = true AND e.parentEventId IN :masterIds")
+    List<Event> findExceptionsOfMasters(@Param("masterIds") Collection<Long> masterIds);
+
+    @Query("SELECT e.id FROM Event e WHERE e.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // the newest occurrence the scheduler created for a series, it takes over as root when the root is deleted
+    @Query("SELECT MAX(e.id) FROM Event e WHERE e.seriesRootId = :rootId")
+    Long findLatestOfSeries(@Param("rootId") Long rootId);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Event e SET e.seriesRootId = :newRootId WHERE e.seriesRootId = :rootId AND e.id <> :newRootId")
+    int reRootSeries(@Param("rootId") Long rootId, @Param("newRootId") Long newRootId);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Event e SET e.seriesRootId = null WHERE e.id = :id")
+    int clearSeriesRoot(@Param("id") Long id);
+
+    // keyset page over all events, for building the occurrence index
+    @Query("SELECT e FROM Event e WHERE e.id > :afterId ORDER BY e.id")
+    List<Event> findPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM Event e WHERE e.parentEventId = :masterId " +
@@ -0,0 +1,78 @@
+package com.example.reminder.repository;
+
+import com.example.reminder.model.Event;
+import com.example.reminder.model.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Filters of the paged event lists as specifications, for keyset paging where the
+ * seek condition depends on the sort field.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> ofUser(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    public static Specification<Event> onOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("eventDate"), date);
+    }
+
+    /** likeSearch is already lower case and wrapped in % */
+    public static Specification<Event> textLike(String likeSearch) {
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("title")), likeSearch),
+                cb.like(cb.lower(root.get("description")), likeSearch));
+    }
+
+    /** candidates of EventSearchIndex: the indexed ids, or rows changed since its last poll */
+    public static Specification<Event> idInOrChangedSince(Collection<Long> ids, LocalDateTime since) {
+        return (root, query, cb) -> cb.or(
+                root.get("id").in(ids),
+                cb.greaterThanOrEqualTo(root.get("updatedAt"), since));
+    }
+
+    /**
+     * rows after (value, id) in the order (sortBy, id), both ascending or both descending.
+     * Nulls are placed like MySQL orders them: first when ascending, last when descending.
+     * value has to match the type of sortBy: Long for id, LocalDate for eventDate,
+     * LocalDateTime for reminderTime, String for title
+     */
+    public static Specification<Event> after(String sortBy, boolean ascending, Object value, long id) {
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idAfter = ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            return switch (sortBy) {
+                case "id" -> idAfter;
+                case "eventDate" -> seek(cb, root.get("eventDate"), (LocalDate) value, ascending, idAfter);
+                case "reminderTime" -> seek(cb, root.get("reminderTime"), (LocalDateTime) value, ascending, idAfter);
+                case "title" -> seek(cb, root.get("title"), (String) value, ascending, idAfter);
+                default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+            };
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate seek(CriteriaBuilder cb, Path<T> column, T value,
+                                                                     boolean ascending, Predicate idAfter) {
+        if (ascending) {
+            // nulls first: after a null come the remaining nulls, then every value
+            return (value == null)
+                    ? cb.or(cb.and(cb.isNull(column), idAfter), cb.isNotNull(column))
+                    : cb.or(cb.greaterThan(column, value), cb.and(cb.equal(column, value), idAfter));
+        }
+        // nulls last: after a value come smaller values, then every null
+        return (value == null)
+                ? cb.and(cb.isNull(column), idAfter)
+                : cb.or(cb.lessThan(column, value), cb.and(cb.equal(column, value), idAfter), cb.isNull(column));
+    }
+}
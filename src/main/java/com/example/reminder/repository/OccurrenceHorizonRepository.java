@@ -0,0 +1,52 @@
+package com.example.reminder.repository;
+
+import com.example.reminder.model.OccurrenceHorizon;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OccurrenceHorizonRepository extends JpaRepository<OccurrenceHorizon, Integer> {
+
+    // shared lock for the refresh transaction: the range it writes cannot move until it commits
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT h FROM OccurrenceHorizon h WHERE h.id = " + OccurrenceHorizon.ID)
+    Optional<OccurrenceHorizon> findForRefresh();
+
+    // take or renew the lease, 0 when another node holds it
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE OccurrenceHorizon h SET h.leaseOwner = :owner, h.leaseExpiry = :expiry" +
+            " WHERE h.id = " + OccurrenceHorizon.ID +
+            " AND (h.leaseOwner = :owner OR h.leaseExpiry IS NULL OR h.leaseExpiry < :now)")
+    int claimLease(@Param("owner") String owner, @Param("now") LocalDateTime now,
+                   @Param("expiry") LocalDateTime expiry);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE OccurrenceHorizon h SET h.leaseOwner = null, h.leaseExpiry = null" +
+            " WHERE h.id = " + OccurrenceHorizon.ID + " AND h.leaseOwner = :owner")
+    int releaseLease(@Param("owner") String owner);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE OccurrenceHorizon h SET h.fromDate = :from, h.writeUntil = :writeUntil" +
+            " WHERE h.id = " + OccurrenceHorizon.ID + " AND h.leaseOwner = :owner")
+    int startExtension(@Param("owner") String owner, @Param("from") LocalDate from,
+                       @Param("writeUntil") LocalDate writeUntil);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE OccurrenceHorizon h SET h.untilDate = :until" +
+            " WHERE h.id = " + OccurrenceHorizon.ID + " AND h.leaseOwner = :owner")
+    int finishExtension(@Param("owner") String owner, @Param("until") LocalDate until);
+}
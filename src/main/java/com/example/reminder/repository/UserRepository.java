@@ -1,11 +1,14 @@
 package com.example.reminder.repository;
 
 import com.example.reminder.model.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -32,4 +35,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmailWithRoles (String email);
 
     Optional<User> findByResetPasswordToken(String token);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.dataVersion = u.dataVersion + 1 WHERE u.id IN :userIds")
+    int incrementDataVersions(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,287 @@
+package com.example.reminder.scheduler;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical hashed timing wheel (Varghese &amp; Lauck) keyed by a long id.
+ *
+ * Level 0 has one slot per tick, every higher level covers 64 slots of the level below.
+ * Entries are cascaded down one level when the lower wheel wraps, so insert, cancel and
+ * per-tick expiry are O(1) no matter how many entries are scheduled.
+ *
+ * Entries live in intrusive doubly linked lists and are indexed in an open addressing
+ * long -> entry table, so one scheduled id costs one small object plus two array cells.
+ *
+ * Not thread safe, callers synchronize.
+ */
+public class HierarchicalTimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+
+    // levels * SLOTS wheel buckets + one bucket for overdue entries + one for entries beyond the top level
+    private final Entry[] heads;
+    private final int dueBucket;
+    private final int overflowBucket;
+
+    // absolute tick that has already been expired
+    private long currentTick;
+    private int size;
+
+    // open addressing index id -> entry (linear probing, backward shift delete)
+    private long[] keys;
+    private Entry[] values;
+    private int mask;
+
+    public HierarchicalTimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels < 1 || levels > 10) {
+            throw new IllegalArgumentException("tickMillis must be > 0 and levels between 1 and 10");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.heads = new Entry[levels * SLOTS + 2];
+        this.dueBucket = levels * SLOTS;
+        this.overflowBucket = dueBucket + 1;
+        this.currentTick = startMillis / tickMillis;
+
+        this.keys = new long[16];
+        this.values = new Entry[16];
+        this.mask = 15;
+    }
+
+    /** schedule (or re-schedule) id to fire at the first tick at or after deadlineMillis */
+    public void schedule(long id, long deadlineMillis) {
+        Entry e = get(id);
+        if (e != null) {
+            unlink(e);
+        } else {
+            e = new Entry(id);
+            put(e);
+            size++;
+        }
+        // round up, an entry must never fire before its deadline
+        e.deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(e);
+    }
+
+    public boolean cancel(long id) {
+        Entry e = remove(id);
+        if (e == null) {
+            return false;
+        }
+        unlink(e);
+        size--;
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return get(id) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * advance the wheel up to nowMillis and hand every expired id to the sink.
+     * returns the number of expired ids.
+     */
+    public int advance(long nowMillis, LongConsumer sink) {
+        int fired = drain(dueBucket, sink);
+
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                // nothing scheduled, jump straight to the target
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            cascade();
+            fired += drain((int) (currentTick & SLOT_MASK), sink);
+            // entries cascaded exactly onto this tick land in the due bucket
+            fired += drain(dueBucket, sink);
+        }
+        return fired;
+    }
+
+    private void cascade() {
+        // every level whose lower wheel just wrapped pushes its current slot one level down
+        for (int level = 1; level < levels; level++) {
+            long lowBits = currentTick & ((1L << (SLOT_BITS * level)) - 1);
+            if (lowBits != 0) {
+                return;
+            }
+            int bucket = level * SLOTS + (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            replaceAll(bucket);
+            if (level == levels - 1) {
+                replaceAll(overflowBucket);
+            }
+        }
+        if (levels == 1) {
+            replaceAll(overflowBucket);
+        }
+    }
+
+    private void replaceAll(int bucket) {
+        Entry e = heads[bucket];
+        heads[bucket] = null;
+        while (e != null) {
+            Entry next = e.next;
+            e.prev = null;
+            e.next = null;
+            place(e);
+            e = next;
+        }
+    }
+
+    private int drain(int bucket, LongConsumer sink) {
+        int fired = 0;
+        Entry e = heads[bucket];
+        heads[bucket] = null;
+        while (e != null) {
+            Entry next = e.next;
+            remove(e.id);
+            size--;
+            fired++;
+            sink.accept(e.id);
+            e = next;
+        }
+        return fired;
+    }
+
+    private void place(Entry e) {
+        long delta = e.deadlineTick - currentTick;
+        int bucket;
+        if (delta <= 0) {
+            bucket = dueBucket;
+        } else {
+            bucket = overflowBucket;
+            for (int level = 0; level < levels; level++) {
+                if (delta < (1L << (SLOT_BITS * (level + 1)))) {
+                    bucket = level * SLOTS + (int) ((e.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                    break;
+                }
+            }
+        }
+        e.bucket = bucket;
+        e.prev = null;
+        e.next = heads[bucket];
+        if (e.next != null) {
+            e.next.prev = e;
+        }
+        heads[bucket] = e;
+    }
+
+    private void unlink(Entry e) {
+        if (e.prev != null) {
+            e.prev.next = e.next;
+        } else {
+            heads[e.bucket] = e.next;
+        }
+        if (e.next != null) {
+            e.next.prev = e.prev;
+        }
+        e.prev = null;
+        e.next = null;
+    }
+
+    // ---- id index ----
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Entry get(long id) {
+        int i = hash(id) & mask;
+        while (values[i] != null) {
+            if (keys[i] == id) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    private void put(Entry e) {
+        if ((size + 1) * 2 > values.length) {
+            resize(values.length * 2);
+        }
+        int i = hash(e.id) & mask;
+        while (values[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = e.id;
+        values[i] = e;
+    }
+
+    private Entry remove(long id) {
+        int i = hash(id) & mask;
+        while (values[i] != null) {
+            if (keys[i] == id) {
+                Entry removed = values[i];
+                shiftBack(i);
+                return removed;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            int home = hash(keys[i]) & mask;
+            // move the entry into the hole if its home slot is not between the hole and its position
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Entry[] oldValues = values;
+        keys = new long[capacity];
+        values = new Entry[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static final class Entry {
+        final long id;
+        long deadlineTick;
+        int bucket;
+        Entry prev;
+        Entry next;
+
+        Entry(long id) {
+            this.id = id;
+        }
+    }
+}
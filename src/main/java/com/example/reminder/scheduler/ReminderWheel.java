@@ -0,0 +1,131 @@
+package com.example.reminder.scheduler;
+
+import com.example.reminder.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory schedule of pending reminders for a look-ahead window.
+ * The window is loaded from the DB at startup and refilled periodically,
+ * EventService keeps it up to date on every mutation so the DB is only
+ * queried when something is actually due.
+ */
+@Slf4j
+@Component
+public class ReminderWheel {
+
+    private final EventRepository repo;
+    private final HierarchicalTimingWheel wheel;
+
+    @Value("${app.reminder.wheel.look-ahead-minutes:60}")
+    private long lookAheadMinutes;
+
+    // reminders with reminderTime <= loadedUntil are in the wheel, later ones are picked up by refill()
+    private LocalDateTime loadedUntil;
+
+    public ReminderWheel(EventRepository repo,
+                         @Value("${app.reminder.wheel.tick-ms:1000}") long tickMillis) {
+        this.repo = repo;
+        this.wheel = new HierarchicalTimingWheel(tickMillis, 5, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        LocalDateTime until = LocalDateTime.now().plusMinutes(lookAheadMinutes);
+        synchronized (this) {
+            loadedUntil = until;
+        }
+
+        // includes everything that became due while the application was down
+        List<Object[]> rows = repo.findPendingReminderTimesUntil(until);
+
+        merge(rows);
+        log.info("Reminder wheel loaded {} pending reminders until {}", rows.size(), until);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminder.wheel.refill-ms:300000}",
+               initialDelayString = "${app.reminder.wheel.refill-ms:300000}")
+    public void refill() {
+        LocalDateTime until = LocalDateTime.now().plusMinutes(lookAheadMinutes);
+        LocalDateTime from;
+        synchronized (this) {
+            from = loadedUntil;
+            if (from == null || !until.isAfter(from)) {
+                return;
+            }
+            // widened before the query: a reminder saved while it runs is scheduled by EventService,
+            // even if the query does not see it
+            loadedUntil = until;
+        }
+
+        List<Object[]> rows = repo.findPendingReminderTimesBetween(from, until);
+
+        merge(rows);
+        log.debug("Reminder wheel refilled {} reminders in ({}, {}]", rows.size(), from, until);
+    }
+
+    /** (re)schedule a reminder, reminders outside the loaded window are left to refill() */
+    public synchronized void schedule(Long eventId, LocalDateTime reminderTime) {
+        if (eventId == null) {
+            return;
+        }
+        if (reminderTime == null || loadedUntil == null || reminderTime.isAfter(loadedUntil)) {
+            wheel.cancel(eventId);
+            return;
+        }
+        wheel.schedule(eventId, toMillis(reminderTime));
+    }
+
+    /**
+     * schedule reminders that fired but could not be dispatched, e.g. because their page rolled back,
+     * so they fire again at retryAt. Bypasses the window, these are due already
+     */
+    public synchronized void retry(Collection<Long> eventIds, LocalDateTime retryAt) {
+        long deadline = toMillis(retryAt);
+        for (Long id : eventIds) {
+            wheel.schedule(id, deadline);
+        }
+    }
+
+    public synchronized void cancel(Long eventId) {
+        if (eventId != null) {
+            wheel.cancel(eventId);
+        }
+    }
+
+    /** ids of all reminders that became due up to now */
+    public synchronized List<Long> pollDue(LocalDateTime now) {
+        List<Long> due = new ArrayList<>();
+        wheel.advance(toMillis(now), due::add);
+        return due;
+    }
+
+    // rows read by a load or refill. ids already in the wheel were (re)scheduled by a save that ran
+    // concurrently with the query and are newer than what it returned
+    private synchronized void merge(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            if (!wheel.contains(id)) {
+                wheel.schedule(id, toMillis((LocalDateTime) row[1]));
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return wheel.size();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
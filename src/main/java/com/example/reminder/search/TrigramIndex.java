@@ -0,0 +1,203 @@
+package com.example.reminder.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from character trigrams to the ids of the documents containing them.
+ *
+ * A substring query of three or more characters can only match a document that contains all of its
+ * trigrams, so intersecting their posting lists yields a candidate superset that the caller still
+ * verifies. Stale postings (text changed without remove) therefore only cost a verification,
+ * a missing posting would lose a match.
+ *
+ * Text is folded roughly like MySQL's accent- and case-insensitive collations (lower case,
+ * accents stripped, ß / æ / œ expanded) so candidates cover what LIKE on such a column finds.
+ */
+public final class TrigramIndex {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    // the rarest posting list may exceed the candidate limit by this factor before intersecting
+    // costs more than handing the query back
+    private static final int MAX_SCAN_FACTOR = 20;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // ids beyond int range are not indexed, every query then falls back to the caller
+    private volatile boolean overflow;
+
+    public void add(long id, String... texts) {
+        if (id > Integer.MAX_VALUE || id < 0) {
+            overflow = true;
+            return;
+        }
+        long[] grams = trigrams(texts);
+        lock.writeLock().lock();
+        try {
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, k -> new Postings()).add((int) id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** texts must be what was indexed for id, anything else is left behind as a stale posting */
+    public void remove(long id, String... texts) {
+        if (id > Integer.MAX_VALUE || id < 0) {
+            return;
+        }
+        long[] grams = trigrams(texts);
+        lock.writeLock().lock();
+        try {
+            for (long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list != null && list.remove((int) id) && list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ascending ids whose text may contain query. null when the index cannot narrow the query down:
+     * shorter than three characters, a LIKE wildcard in it, more than limit candidates,
+     * or only trigrams so common that intersecting them is not worth it
+     */
+    public int[] candidates(String query, int limit) {
+        if (overflow || query == null || query.indexOf('%') >= 0 || query.indexOf('_') >= 0
+                || query.indexOf('\\') >= 0) {
+            return null;
+        }
+        String folded = fold(query);
+        if (folded.length() < MIN_QUERY_LENGTH) {
+            return null;
+        }
+        long[] grams = trigrams(folded);
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(grams.length);
+            for (long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            // start with the rarest trigram, every further list can only shrink the result
+            lists.sort(Comparator.comparingInt(p -> p.size));
+
+            Postings rarest = lists.get(0);
+            if (rarest.size > (long) limit * MAX_SCAN_FACTOR) {
+                return null;
+            }
+            int[] result = Arrays.copyOf(rarest.ids, rarest.size);
+            int size = result.length;
+            for (int i = 1; i < lists.size() && size > 0; i++) {
+                Postings other = lists.get(i);
+                int kept = 0;
+                for (int j = 0; j < size; j++) {
+                    if (Arrays.binarySearch(other.ids, 0, other.size, result[j]) >= 0) {
+                        result[kept++] = result[j];
+                    }
+                }
+                size = kept;
+            }
+            return (size > limit) ? null : Arrays.copyOf(result, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT)
+                .replace("ß", "ss").replace("æ", "ae").replace("œ", "oe");
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    // distinct trigrams of the folded texts, three chars packed into one long
+    private static long[] trigrams(String... texts) {
+        long[] grams = new long[16];
+        int size = 0;
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            String folded = fold(text);
+            for (int i = 0; i + MIN_QUERY_LENGTH <= folded.length(); i++) {
+                if (size == grams.length) {
+                    grams = Arrays.copyOf(grams, size * 2);
+                }
+                grams[size++] = ((long) folded.charAt(i) << 32) | ((long) folded.charAt(i + 1) << 16)
+                        | folded.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(grams, 0, size).sorted().distinct().toArray();
+    }
+
+    // ascending ids, appends are the common case since new events get increasing ids
+    private static final class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                insertAt(-pos - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        private void insertAt(int pos, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+    }
+}
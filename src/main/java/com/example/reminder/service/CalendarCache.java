@@ -0,0 +1,98 @@
+package com.example.reminder.service;
+
+import com.example.reminder.dto.EventResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Expanded calendar occurrences per (user, month), bounded by the total number of cached
+ * occurrences and by a TTL. Busy-day masks per (user, month) are cached next to them.
+ *
+ * Entries carry the user's data version (users.data_version) they were loaded under and are only
+ * served to reads of that same version. Every mutation bumps the version in the database, so every
+ * instance stops serving what it cached before, without invalidation messages between instances.
+ * A load reads the version before the rows, so an entry is never older than its version.
+ */
+@Component
+public class CalendarCache {
+
+    // rough retained size of one EventResponse incl. strings, for the footprint gauge
+    private static final long BYTES_PER_OCCURRENCE = 320;
+
+    public record Key(long userId, YearMonth month) {
+    }
+
+    private record Month(long version, List<EventResponse> occurrences) {
+    }
+
+    // bit d - 1 of mask set when day d of the month has an occurrence
+    private record BusyDays(long version, int mask) {
+    }
+
+    private final Cache<Key, Month> cache;
+    private final Cache<Key, BusyDays> busyDays;
+
+    public CalendarCache(@Value("${app.calendar.cache.max-occurrences:200000}") long maxOccurrences,
+                         @Value("${app.calendar.cache.ttl-minutes:10}") long ttlMinutes,
+                         @Value("${app.calendar.cache.max-busy-months:100000}") long maxBusyMonths,
+                         MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxOccurrences)
+                .<Key, Month>weigher((key, month) -> month.occurrences().size() + 1)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+
+        this.busyDays = Caffeine.newBuilder()
+                .maximumSize(maxBusyMonths)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+
+        // hits, misses, evictions and entries as cache_* with cache="calendar" / "calendar-busy-days"
+        CaffeineCacheMetrics.monitor(registry, cache, "calendar");
+        CaffeineCacheMetrics.monitor(registry, busyDays, "calendar-busy-days");
+        Gauge.builder("reminder.calendar.cache.occurrences", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Occurrences held by the calendar cache")
+                .register(registry);
+        Gauge.builder("reminder.calendar.cache.bytes", cache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L)
+                                * BYTES_PER_OCCURRENCE)
+                .description("Estimated memory held by the calendar cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /** null unless the month is cached for exactly this data version */
+    public List<EventResponse> get(long userId, long version, YearMonth month) {
+        Month cached = cache.getIfPresent(new Key(userId, month));
+        return (cached != null && cached.version() == version) ? cached.occurrences() : null;
+    }
+
+    /** version is the user's data version read before loading the occurrences */
+    public void put(long userId, long version, YearMonth month, List<EventResponse> occurrences) {
+        // a slow load of an older version must not replace a newer entry
+        cache.asMap().merge(new Key(userId, month), new Month(version, List.copyOf(occurrences)),
+                (old, loaded) -> (old.version() > loaded.version()) ? old : loaded);
+    }
+
+    public Integer getBusyDays(long userId, long version, YearMonth month) {
+        BusyDays cached = busyDays.getIfPresent(new Key(userId, month));
+        return (cached != null && cached.version() == version) ? cached.mask() : null;
+    }
+
+    public void putBusyDays(long userId, long version, YearMonth month, int mask) {
+        busyDays.asMap().merge(new Key(userId, month), new BusyDays(version, mask),
+                (old, loaded) -> (old.version() > loaded.version()) ? old : loaded);
+    }
+}
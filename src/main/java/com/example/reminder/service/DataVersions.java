@@ -0,0 +1,35 @@
+package com.example.reminder.service;
+
+import com.example.reminder.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-user data version (users.data_version), bumped after anything the user's event, calendar
+ * or reminder reads return has changed. Kept in the database so every instance agrees on it;
+ * reads turn it into an ETag.
+ *
+ * Bump in the mutating transaction or after it committed, never before: a read between
+ * the bump and the commit would pair the new version with the old rows.
+ */
+@Component
+public class DataVersions {
+
+    private final UserRepository userRepo;
+
+    public DataVersions(UserRepository userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    public void bump(Long userId) {
+        bump(List.of(userId));
+    }
+
+    public void bump(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            userRepo.incrementDataVersions(userIds);
+        }
+    }
+}
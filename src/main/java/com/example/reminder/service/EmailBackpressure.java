@@ -0,0 +1,35 @@
+package com.example.reminder.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Tells producers how much room is left in the email executor queue,
+ * so they claim less work instead of queueing it in memory.
+ */
+@Component
+public class EmailBackpressure {
+
+    private final ThreadPoolTaskExecutor emailExecutor;
+
+    @Value("${app.mail.executor.saturation-ratio:0.8}")
+    private double saturationRatio;
+
+    public EmailBackpressure(@Qualifier("emailExecutor") ThreadPoolTaskExecutor emailExecutor) {
+        this.emailExecutor = emailExecutor;
+    }
+
+    public int remainingCapacity() {
+        return emailExecutor.getThreadPoolExecutor().getQueue().remainingCapacity();
+    }
+
+    public boolean isSaturated() {
+        BlockingQueue<Runnable> queue = emailExecutor.getThreadPoolExecutor().getQueue();
+        int capacity = queue.size() + queue.remainingCapacity();
+        return capacity == 0 || queue.size() >= capacity * saturationRatio;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.reminder.service;
+
+import com.example.reminder.model.EmailDeadLetter;
+import com.example.reminder.model.EmailKind;
+import com.example.reminder.model.EmailOutbox;
+import com.example.reminder.repository.EmailDeadLetterRepository;
+import com.example.reminder.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves outbox emails that ran out of attempts to the dead-letter table and puts them
+ * back into the outbox on request.
+ */
+@Slf4j
+@Service
+public class EmailDeadLetterService {
+
+    private static final int REQUEUE_BATCH = 500;
+
+    private final EmailDeadLetterRepository deadLetterRepo;
+    private final EmailOutboxRepository outboxRepo;
+    private final TransactionTemplate txTemplate;
+    private final Counter deadLettered;
+    private final Counter requeued;
+
+    public EmailDeadLetterService(EmailDeadLetterRepository deadLetterRepo, EmailOutboxRepository outboxRepo,
+                                  PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.deadLetterRepo = deadLetterRepo;
+        this.outboxRepo = outboxRepo;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.deadLettered = Counter.builder("reminder.mail.dead_letter.added")
+                .description("Outbox emails given up on and moved to the dead-letter table")
+                .register(registry);
+        this.requeued = Counter.builder("reminder.mail.dead_letter.requeued")
+                .register(registry);
+    }
+
+    // dead letter row and outbox delete commit together
+    @Transactional
+    public EmailDeadLetter moveToDeadLetter(EmailOutbox row, int attempts, String lastError) {
+        EmailDeadLetter letter = deadLetterRepo.save(EmailDeadLetter.fromOutbox(row, attempts, lastError));
+        outboxRepo.deleteById(row.getId());
+        deadLettered.increment();
+        return letter;
+    }
+
+    public Page<EmailDeadLetter> getDeadLetters(EmailKind kind, Pageable pageable) {
+        return (kind == null) ? deadLetterRepo.findAll(pageable) : deadLetterRepo.findByKind(kind, pageable);
+    }
+
+    /** requeue the given dead letters as fresh outbox emails, unknown ids are ignored */
+    @Transactional
+    public int requeue(List<Long> ids) {
+        List<EmailDeadLetter> letters = deadLetterRepo.findAllById(ids);
+        if (letters.isEmpty()) {
+            return 0;
+        }
+        outboxRepo.saveAll(letters.stream().map(EmailDeadLetter::toOutbox).toList());
+        deadLetterRepo.deleteAllInBatch(letters);
+        requeued.increment(letters.size());
+        return letters.size();
+    }
+
+    /** requeue every dead letter (of one kind, if given), in batches with a transaction each */
+    public int requeueAll(EmailKind kind) {
+        int total = 0;
+        while (true) {
+            // requeued rows are deleted, so the first page is always the next batch
+            List<Long> ids = deadLetterRepo.findIds(kind, PageRequest.of(0, REQUEUE_BATCH));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer count = txTemplate.execute(status -> requeue(ids));
+            total += (count != null) ? count : 0;
+        }
+        log.info("Requeued {} dead letters{}", total, (kind != null) ? " of kind " + kind : "");
+        return total;
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.reminder.service;
+
+import com.example.reminder.config.EmailRejectedExecutionHandler;
+import com.example.reminder.model.EmailOutbox;
+import com.example.reminder.ratelimit.MailRateLimiter;
+import com.example.reminder.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.SendFailedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains the email outbox in batches on the bounded email executor,
+ * every batch is split across the pooled SMTP connections.
+ * Claiming is multi-node safe (SKIP LOCKED + lock expiry), so a row is only sent by one node
+ * and rows of a crashed node are picked up again once their lock expires.
+ * Failed sends are retried with exponential backoff and jitter via nextAttemptAt, never by waiting
+ * on the send thread; after max-attempts the mail moves to the dead-letter table.
+ * Sends are paced by MailRateLimiter, mails over budget go back to the outbox with a later nextAttemptAt.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository outboxRepo;
+    private final EmailService emailService;
+    private final ThreadPoolTaskExecutor emailExecutor;
+    private final EmailBackpressure backpressure;
+    private final SmtpTransportPool smtpPool;
+    private final MailRateLimiter rateLimiter;
+    private final EmailDeadLetterService deadLetters;
+    private final ReminderMetrics metrics;
+    private final TransactionTemplate txTemplate;
+    private final String nodeId;
+    private final Timer deferralDelay;
+    private final Timer deliveryLatency;
+    private final Counter retries;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.lock-seconds:300}")
+    private long lockSeconds;
+
+    @Value("${app.mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    // first retry delay, doubled per attempt up to retry-max-delay-seconds
+    @Value("${app.mail.outbox.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    @Value("${app.mail.outbox.retry-max-delay-seconds:3600}")
+    private long retryMaxDelaySeconds;
+
+    @Value("${app.mail.outbox.spill-delay-seconds:5}")
+    private long spillDelaySeconds;
+
+    @Value("${app.mail.outbox.retention-days:7}")
+    private long retentionDays;
+
+    // waits up to this long are spent on the connection instead of a round trip through the outbox
+    @Value("${app.mail.rate.max-wait-ms:250}")
+    private long maxRateWaitMs;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepo,
+                                 EmailService emailService,
+                                 @Qualifier("emailExecutor") ThreadPoolTaskExecutor emailExecutor,
+                                 EmailBackpressure backpressure,
+                                 SmtpTransportPool smtpPool,
+                                 MailRateLimiter rateLimiter,
+                                 EmailDeadLetterService deadLetters,
+                                 ReminderMetrics metrics,
+                                 PlatformTransactionManager transactionManager,
+                                 ReminderClaimService claimService,
+                                 MeterRegistry registry) {
+        this.outboxRepo = outboxRepo;
+        this.emailService = emailService;
+        this.emailExecutor = emailExecutor;
+        this.backpressure = backpressure;
+        this.smtpPool = smtpPool;
+        this.rateLimiter = rateLimiter;
+        this.deadLetters = deadLetters;
+        this.metrics = metrics;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = claimService.getNodeId();
+        this.deferralDelay = Timer.builder("reminder.mail.rate.deferral")
+                .description("How far mails over the rate budget were pushed back")
+                .register(registry);
+        this.deliveryLatency = Timer.builder("reminder.mail.outbox.delivery.latency")
+                .description("Time from enqueue to SMTP acceptance, including deferrals")
+                .register(registry);
+        this.retries = Counter.builder("reminder.mail.outbox.retries")
+                .description("Failed sends scheduled for another attempt")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-ms:1000}")
+    public void drain() {
+        int connections = smtpPool.getSize();
+        while (true) {
+            // a batch becomes one task per pooled connection, never claim more than the executor can queue
+            if (backpressure.remainingCapacity() < connections) {
+                return;
+            }
+
+            // don't claim mails the global rate budget cannot send anyway
+            int limit = Math.min(batchSize, rateLimiter.globalAvailable());
+            if (limit == 0) {
+                return;
+            }
+
+            List<EmailOutbox> batch = claimBatch(limit);
+            int chunkSize = Math.max(1, (batch.size() + connections - 1) / connections);
+            for (int from = 0; from < batch.size(); from += chunkSize) {
+                List<EmailOutbox> chunk = batch.subList(from, Math.min(batch.size(), from + chunkSize));
+                emailExecutor.execute(new OutboxSendTask(chunk));
+            }
+
+            if (batch.size() < limit) {
+                return;
+            }
+        }
+    }
+
+    private List<EmailOutbox> claimBatch(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return txTemplate.execute(status -> {
+            List<Long> ids = outboxRepo.lockDueIds(now, limit);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            outboxRepo.markSending(ids, nodeId, now.plusSeconds(lockSeconds));
+            return outboxRepo.findAllById(ids);
+        });
+    }
+
+    // sends a chunk over one pooled SMTP connection, each row succeeds or fails on its own
+    private void sendChunk(List<EmailOutbox> chunk) {
+        SmtpTransportPool.PooledTransport transport;
+        try {
+            transport = smtpPool.borrow();
+        } catch (Exception ex) {
+            chunk.forEach(row -> markFailed(row, ex));
+            return;
+        }
+
+        try (transport) {
+            for (EmailOutbox row : chunk) {
+                long waitNanos = acquireSendPermit(row.getRecipient());
+                if (waitNanos > 0) {
+                    defer(row, waitNanos);
+                    continue;
+                }
+                long start = System.nanoTime();
+                try {
+                    transport.send(emailService.createHtmlMessage(row.getRecipient(), row.getSubject(),
+                            row.getBody()));
+                    metrics.recordSmtpSend(System.nanoTime() - start, true);
+                    LocalDateTime sentAt = LocalDateTime.now();
+                    outboxRepo.markSent(row.getId(), sentAt);
+                    if (row.getCreatedAt() != null) {
+                        deliveryLatency.record(Duration.between(row.getCreatedAt(), sentAt));
+                    }
+                    if (row.getDueAt() != null) {
+                        metrics.recordLateness(Duration.between(row.getDueAt(), sentAt));
+                    }
+                    log.info("Outbox email {} ({}) sent to {}", row.getId(), row.getKind(), row.getRecipient());
+
+                } catch (Exception ex) {
+                    metrics.recordSmtpSend(System.nanoTime() - start, false);
+                    markFailed(row, ex);
+                }
+            }
+        }
+    }
+
+    // 0 when the mail may be sent, otherwise the nanos it has to wait; short waits are slept off
+    private long acquireSendPermit(String recipient) {
+        long waitNanos = rateLimiter.tryAcquire(recipient);
+        if (waitNanos > 0 && waitNanos <= TimeUnit.MILLISECONDS.toNanos(maxRateWaitMs)) {
+            LockSupport.parkNanos(waitNanos);
+            waitNanos = rateLimiter.tryAcquire(recipient);
+        }
+        return waitNanos;
+    }
+
+    // over budget: back to the outbox without counting an attempt, due again once a token is free
+    private void defer(EmailOutbox row, long waitNanos) {
+        outboxRepo.releaseToPending(row.getId(), LocalDateTime.now().plusNanos(waitNanos));
+        deferralDelay.record(waitNanos, TimeUnit.NANOSECONDS);
+        log.debug("Outbox email {} to {} over rate budget, deferred {} ms", row.getId(), row.getRecipient(),
+                TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    private void markFailed(EmailOutbox row, Exception ex) {
+        int attempts = row.getAttempts() + 1;
+        String error = truncate(ex.getMessage());
+        metrics.recordFailure("send");
+
+        if (attempts >= maxAttempts || isPermanent(ex)) {
+            deadLetters.moveToDeadLetter(row, attempts, error);
+            log.error("Giving up on outbox email {} to {} after {} attempts, moved to dead letters",
+                    row.getId(), row.getRecipient(), attempts, ex);
+            return;
+        }
+
+        LocalDateTime next = LocalDateTime.now().plus(retryDelay(attempts));
+        outboxRepo.scheduleRetry(row.getId(), next, error);
+        retries.increment();
+        log.warn("Failed to send outbox email {} to {} (attempt {}), next attempt at {}: {}",
+                row.getId(), row.getRecipient(), attempts, next, ex.getMessage());
+    }
+
+    // exponential backoff with "equal jitter": half of the delay is fixed, the other half random,
+    // so mails that failed together during an outage don't all retry in the same second
+    private Duration retryDelay(int attempts) {
+        long delayMs = Math.min(retryMaxDelaySeconds * 1000,
+                (retryDelaySeconds * 1000) << Math.min(attempts - 1, 20));
+        long half = delayMs / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    // the server rejected the recipient with a 5xx, another attempt would fail the same way
+    private static boolean isPermanent(Exception ex) {
+        return ex instanceof SendFailedException sfe
+                && sfe.getInvalidAddresses() != null && sfe.getInvalidAddresses().length > 0;
+    }
+
+    // hand claimed rows back to the outbox without counting an attempt
+    private void release(List<EmailOutbox> rows) {
+        LocalDateTime next = LocalDateTime.now().plusSeconds(spillDelaySeconds);
+        rows.forEach(row -> outboxRepo.releaseToPending(row.getId(), next));
+        log.debug("{} outbox emails spilled back to the outbox", rows.size());
+    }
+
+    private class OutboxSendTask implements Runnable, EmailRejectedExecutionHandler.Spillable {
+        private final List<EmailOutbox> chunk;
+
+        OutboxSendTask(List<EmailOutbox> chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        public void run() {
+            sendChunk(chunk);
+        }
+
+        @Override
+        public void spill() {
+            release(chunk);
+        }
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = outboxRepo.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} sent outbox emails", deleted);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.reminder.service;
+
+import com.example.reminder.model.EmailKind;
+import com.example.reminder.model.EmailOutbox;
+import com.example.reminder.repository.EmailOutboxRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes emails to the outbox. Callers enqueue inside their own transaction so the
+ * mail is committed together with the state change, EmailOutboxDispatcher sends it.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepo;
+
+    public EmailOutboxService(EmailOutboxRepository outboxRepo) {
+        this.outboxRepo = outboxRepo;
+    }
+
+    public EmailOutbox enqueue(String to, String subject, String htmlBody, EmailKind kind, Long eventId) {
+        return outboxRepo.save(new EmailOutbox(to, subject, htmlBody, kind, eventId));
+    }
+
+    // reminder mails, dueAt is the reminderTime they were due at
+    public EmailOutbox enqueue(String to, String subject, String htmlBody, EmailKind kind, Long eventId,
+                               LocalDateTime dueAt) {
+        EmailOutbox row = new EmailOutbox(to, subject, htmlBody, kind, eventId);
+        row.setDueAt(dueAt);
+        return outboxRepo.save(row);
+    }
+
+    public EmailOutbox enqueue(String to, String subject, String htmlBody, EmailKind kind) {
+        return enqueue(to, subject, htmlBody, kind, null);
+    }
+}
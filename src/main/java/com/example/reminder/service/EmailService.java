@@ -1,15 +1,17 @@
 package com.example.reminder.service;
 
 import com.example.reminder.model.Event;
+import com.example.reminder.template.HtmlTemplate;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Slf4j
 @Service
 public class EmailService {
@@ -33,51 +35,40 @@ public class EmailService {
         }
     }*/
 
-    @Async // each call executes in separated Thread
-    public void sendReminderHtml(String to , String subject , String htmlBody) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage,true,"UTF-8");
-
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true);
+    public MimeMessage createHtmlMessage(String to , String subject , String htmlBody) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage,true,"UTF-8");
 
-            mailSender.send(mimeMessage);
-            log.info("HTML reminder email sent to {}", to);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlBody, true);
 
-        } catch (MessagingException e) {
-            log.error("Failed to send HTML email to {}: {}", to, e.getMessage(), e);
-        }
+        return mimeMessage;
     }
 
-    public String buildReminderHtml(Event e) {
-        String desc = (e.getDescription() == null || e.getDescription().isBlank())
-                ? "—"
-                : e.getDescription();
-
-        return """
+    // templates are parsed once at class load, values are HTML-escaped on render
+    private static final HtmlTemplate REMINDER_TEMPLATE = HtmlTemplate.compile("""
         <div style="font-family: Arial, sans-serif; background:#f4f4f5; padding:20px;">
           <div style="max-width:520px; margin:0 auto; background:#ffffff; border-radius:12px; overflow:hidden; border:1px solid #e5e7eb;">
             <div style="background:#2563eb; color:#fff; padding:16px 20px; font-size:18px; font-weight:600;">
-              🔔 Reminder: %s
+              🔔 Reminder: {{title}}
             </div>
             <div style="padding:20px;">
               <p style="margin:0 0 12px 0; color:#374151;">Hi,</p>
               <p style="margin:0 0 16px 0; color:#374151;">This is a friendly reminder for your event.</p>
 
-              <table style="width:100%%; border-collapse:collapse; margin-top:10px;">
+              <table style="width:100%; border-collapse:collapse; margin-top:10px;">
                 <tr>
                   <td style="padding:8px 0; color:#6b7280; width:110px;">Title:</td>
-                  <td style="padding:8px 0; color:#111827; font-weight:500;">%s</td>
+                  <td style="padding:8px 0; color:#111827; font-weight:500;">{{title}}</td>
                 </tr>
                 <tr>
                   <td style="padding:8px 0; color:#6b7280;">Event date:</td>
-                  <td style="padding:8px 0; color:#111827;">%s</td>
+                  <td style="padding:8px 0; color:#111827;">{{eventDate}}</td>
                 </tr>
                 <tr>
                   <td style="padding:8px 0; color:#6b7280; vertical-align:top;">Description:</td>
-                  <td style="padding:8px 0; color:#111827;">%s</td>
+                  <td style="padding:8px 0; color:#111827;">{{description}}</td>
                 </tr>
               </table>
 
@@ -87,18 +78,47 @@ public class EmailService {
             </div>
           </div>
         </div>
-        """.formatted(
-                e.getTitle(),
-                e.getTitle(),
-                e.getEventDate(),
-                desc
-        );
-    }
+        """, "title", "eventDate", "description");
 
-    public String changeEmailHtml() {
+    // digest = header + one row per event + footer, rendered into one builder
+    private static final HtmlTemplate DIGEST_HEADER_TEMPLATE = HtmlTemplate.compile("""
+        <div style="font-family: Arial, sans-serif; background:#f4f4f5; padding:20px;">
+          <div style="max-width:520px; margin:0 auto; background:#ffffff; border-radius:12px; overflow:hidden; border:1px solid #e5e7eb;">
+            <div style="background:#2563eb; color:#fff; padding:16px 20px; font-size:18px; font-weight:600;">
+              🔔 {{heading}}
+            </div>
+            <div style="padding:20px;">
+              <p style="margin:0 0 12px 0; color:#374151;">Hi,</p>
+              <p style="margin:0 0 16px 0; color:#374151;">This is a friendly reminder for your events.</p>
 
+              <table style="width:100%; border-collapse:collapse; margin-top:10px;">
+                <tr>
+                  <td style="padding:8px 0; color:#6b7280;">Title</td>
+                  <td style="padding:8px 0; color:#6b7280;">Event date</td>
+                  <td style="padding:8px 0; color:#6b7280;">Description</td>
+                </tr>
+        """, "heading");
+
+    private static final HtmlTemplate DIGEST_ROW_TEMPLATE = HtmlTemplate.compile("""
+                <tr>
+                  <td style="padding:8px 8px 8px 0; color:#111827; font-weight:500; border-top:1px solid #e5e7eb;">{{title}}</td>
+                  <td style="padding:8px 8px 8px 0; color:#111827; border-top:1px solid #e5e7eb;">{{eventDate}}</td>
+                  <td style="padding:8px 0; color:#111827; border-top:1px solid #e5e7eb;">{{description}}</td>
+                </tr>
+        """, "title", "eventDate", "description");
+
+    private static final String DIGEST_FOOTER_HTML = """
+              </table>
+
+              <p style="margin-top:20px; font-size:12px; color:#9ca3af;">
+                You received this email because you created reminders in ReminderApp.
+              </p>
+            </div>
+          </div>
+        </div>
+        """;
 
-        return """
+    private static final String CHANGE_EMAIL_HTML = """
         <div style="font-family: Arial, sans-serif; background:#f4f4f5; padding:20px;">
           <div style="max-width:520px; margin:0 auto; background:#ffffff; border-radius:12px; overflow:hidden; border:1px solid #e5e7eb;">
 
@@ -107,7 +127,7 @@ public class EmailService {
               <p style="margin:0 0 16px 0; color:#374151;">This is a friendly reminder,
               because you have changed your Email(Username).</p>
 
-              <table style="text-align:center; width:100%%; border-collapse:collapse; margin-top:10px;">
+              <table style="text-align:center; width:100%; border-collapse:collapse; margin-top:10px;">
                 <tr>
                   <td style="text-align:center; padding:8px 0; color:#6b7280; width:450px;">
                     <a href="http://localhost:4200/login" target="_blank"
@@ -136,22 +156,18 @@ public class EmailService {
           </div>
         </div>
         """;
-    }
 
-    public String buildVerificationEmailHtml(String link, String newEmail) {
-        return """
+    private static final HtmlTemplate VERIFICATION_TEMPLATE = HtmlTemplate.compile("""
         <h2>Confirm your new email</h2>
         <p>
         This link is valid for 30 minutes.
-        Please click the link below to verify: <b>%s</b></p>
-        <a href="%s" style="padding:10px 18px; background:#2563eb; color:white; text-decoration:none; border-radius:6px;">
+        Please click the link below to verify: <b>{{newEmail}}</b></p>
+        <a href="{{link}}" style="padding:10px 18px; background:#2563eb; color:white; text-decoration:none; border-radius:6px;">
             Verify Email
         </a>
-    """.formatted(newEmail, link);
-    }
+    """, "link", "newEmail");
 
-    public String buildResetPasswordHtml(String link) {
-        return """
+    private static final HtmlTemplate RESET_PASSWORD_TEMPLATE = HtmlTemplate.compile("""
         <div style="font-family: Arial, sans-serif; background:#f4f4f5; padding:20px;">
           <div style="max-width:520px; margin:0 auto; background:#ffffff; border-radius:12px; overflow:hidden; border:1px solid #e5e7eb;">
 
@@ -164,7 +180,7 @@ public class EmailService {
               </p>
 
               <div style="text-align:center; margin:24px 0;">
-                <a href="%s" target="_blank"
+                <a href="{{link}}" target="_blank"
                    style="
                      display:inline-block;
                      background:#3b82f6;
@@ -186,7 +202,42 @@ public class EmailService {
             </div>
           </div>
         </div>
-        """.formatted(link);
+        """, "link");
+
+    public String buildReminderHtml(Event e) {
+        return REMINDER_TEMPLATE.render(e.getTitle(), e.getEventDate(), descriptionOf(e));
+    }
+
+    public String buildReminderDigestHtml(String heading, List<Event> events) {
+        StringBuilder out = new StringBuilder(DIGEST_HEADER_TEMPLATE.getEstimatedLength()
+                + events.size() * DIGEST_ROW_TEMPLATE.getEstimatedLength()
+                + DIGEST_FOOTER_HTML.length());
+
+        DIGEST_HEADER_TEMPLATE.appendTo(out, heading);
+        for (Event e : events) {
+            DIGEST_ROW_TEMPLATE.appendTo(out, e.getTitle(), e.getEventDate(), descriptionOf(e));
+        }
+        out.append(DIGEST_FOOTER_HTML);
+
+        return out.toString();
+    }
+
+    private static String descriptionOf(Event e) {
+        return (e.getDescription() == null || e.getDescription().isBlank())
+                ? "—"
+                : e.getDescription();
+    }
+
+    public String changeEmailHtml() {
+        return CHANGE_EMAIL_HTML;
+    }
+
+    public String buildVerificationEmailHtml(String link, String newEmail) {
+        return VERIFICATION_TEMPLATE.render(link, newEmail);
+    }
+
+    public String buildResetPasswordHtml(String link) {
+        return RESET_PASSWORD_TEMPLATE.render(link);
     }
 
 }
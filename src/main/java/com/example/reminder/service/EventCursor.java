@@ -0,0 +1,32 @@
+package com.example.reminder.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset cursor for paged event lists: the sort it was issued for plus the sort value and id of the
+ * last row returned (value null when that row had no value). Opaque to clients, base64url encoded.
+ */
+record EventCursor(String sortBy, boolean ascending, long id, String value) {
+
+    private static final char SEPARATOR = '\n';
+
+    String encode() {
+        String raw = sortBy + SEPARATOR + (ascending ? "A" : "D") + SEPARATOR + id + SEPARATOR
+                + (value == null ? "-" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** throws IllegalArgumentException for anything encode() did not produce */
+    static EventCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        // the value comes last and may contain the separator itself
+        String[] parts = raw.split(String.valueOf(SEPARATOR), 4);
+        if (parts.length != 4 || !(parts[1].equals("A") || parts[1].equals("D"))
+                || !(parts[3].startsWith("-") || parts[3].startsWith("="))) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+        String value = parts[3].startsWith("=") ? parts[3].substring(1) : null;
+        return new EventCursor(parts[0], parts[1].equals("A"), Long.parseLong(parts[2]), value);
+    }
+}
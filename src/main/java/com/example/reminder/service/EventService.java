@@ -1,28 +1,48 @@
 package com.example.reminder.service;
+import com.example.reminder.dto.BusyDaysResponse;
+import com.example.reminder.dto.CursorPageResponse;
 import com.example.reminder.dto.EventRequest;
 import com.example.reminder.dto.EventResponse;
 import com.example.reminder.dto.MoveOccurrenceRequest;
 import com.example.reminder.exception.BadRequestException;
 import com.example.reminder.exception.ResourceNotFoundException;
+import com.example.reminder.model.EmailKind;
 import com.example.reminder.model.Event;
 import com.example.reminder.model.RecurrenceType;
 import com.example.reminder.model.User;
+import com.example.reminder.recurrence.RecurrenceMath;
+import com.example.reminder.recurrence.RecurrenceRule;
 import com.example.reminder.repository.EventRepository;
+import com.example.reminder.repository.EventSpecifications;
+import com.example.reminder.scheduler.ReminderWheel;
 import com.example.reminder.security.AuthContext;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 
@@ -31,16 +51,62 @@ import static java.time.temporal.ChronoUnit.DAYS;
 public class EventService {
     private final EventRepository repo;
     private final EmailService emailService;
+    private final EmailOutboxService emailOutbox;
+    private final ReminderWheel reminderWheel;
+    private final ReminderClaimService claimService;
+    private final ReminderCatchUp catchUp;
+    private final ReminderMetrics metrics;
+    private final EmailBackpressure emailBackpressure;
+    private final CalendarCache calendarCache;
+    private final OccurrenceIndex occurrenceIndex;
+    private final DataVersions dataVersions;
+    private final EventSearchIndex searchIndex;
+    private final TransactionTemplate txTemplate;
+    private final ThreadPoolTaskExecutor dispatchExecutor;
+    private final Semaphore dispatchPermits;
 
+    @Value("${app.reminder.claim.batch-size:200}")
+    private int claimBatchSize;
 
+    @Value("${app.reminder.claim.sweep-seconds:30}")
+    private long sweepSeconds;
+
+    @Value("${app.reminder.digest.window-minutes:15}")
+    private long digestWindowMinutes;
+
+    @Value("${app.calendar.stream-window-months:3}")
+    private int calendarStreamWindowMonths;
+
+    private volatile LocalDateTime nextSweep;
+
+    // three years, about 140 bytes of bitset
+    private static final int MAX_BUSY_DAYS_RANGE = 3 * 366;
 
     // Allowed sort fields (white list)
     private static final Set<String> ALLOWED_SORTS = Set.of("id", "eventDate", "title", "reminderTime");
 
 
-    public EventService(EventRepository repository, EmailService emailService) {
+    public EventService(EventRepository repository, EmailService emailService, EmailOutboxService emailOutbox,
+                        ReminderWheel reminderWheel, ReminderClaimService claimService, ReminderCatchUp catchUp,
+                        ReminderMetrics metrics, EmailBackpressure emailBackpressure, CalendarCache calendarCache,
+                        OccurrenceIndex occurrenceIndex, DataVersions dataVersions, EventSearchIndex searchIndex,
+                        PlatformTransactionManager transactionManager,
+                        @Qualifier("reminderDispatchExecutor") ThreadPoolTaskExecutor dispatchExecutor) {
         this.repo = repository;
         this.emailService = emailService;
+        this.emailOutbox = emailOutbox;
+        this.reminderWheel = reminderWheel;
+        this.claimService = claimService;
+        this.catchUp = catchUp;
+        this.metrics = metrics;
+        this.emailBackpressure = emailBackpressure;
+        this.calendarCache = calendarCache;
+        this.occurrenceIndex = occurrenceIndex;
+        this.dataVersions = dataVersions;
+        this.searchIndex = searchIndex;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.dispatchExecutor = dispatchExecutor;
+        this.dispatchPermits = new Semaphore(dispatchExecutor.getMaxPoolSize());
     }
 
 
@@ -66,14 +132,25 @@ public class EventService {
 
         Pageable pageable = PageRequest.of(p,s,sort);
 
+        // trigram candidates when the index can narrow the term, null means plain LIKE
+        EventSearchIndex.Candidates candidates = (search != null && !search.isEmpty())
+                ? searchIndex.candidates(search.toLowerCase().trim()) : null;
+
         if(afterDate != null && search != null && !search.isEmpty()) {
             String likeSearch = "%" + search.toLowerCase().trim() + "%";
+            if (candidates != null) {
+                return repo.findByUserAndIdsAndAfterDateAndSearch(user, candidates.ids(),
+                        candidates.changedSince(), afterDate, likeSearch, pageable);
+            }
             return repo.findByUserAndAfterDateAndSearch(user, afterDate, likeSearch, pageable);
         } else if (afterDate != null) {
             return repo.findByUserAndAfterDate(user,afterDate, pageable);
         } else if (search != null && !search.isEmpty()){
             String likeSearch = "%" + search.toLowerCase().trim() + "%";
-
+            if (candidates != null) {
+                return repo.findByUserAndIdsAndSearch(user, candidates.ids(), candidates.changedSince(),
+                        likeSearch, pageable);
+            }
             return repo.findByUserAndSearch(user, likeSearch, pageable);
         }
 
@@ -105,11 +182,23 @@ public class EventService {
 
         Pageable pageable = PageRequest.of(p,s,sort);
 
+        // trigram candidates when the index can narrow the term, null means plain LIKE
+        EventSearchIndex.Candidates candidates = (search != null && !search.isEmpty())
+                ? searchIndex.candidates(search.toLowerCase().trim()) : null;
+
         if (afterDate != null && search != null && !search.isEmpty()) {
             String likeSearch = "%" + search.toLowerCase().trim() + "%";
+            if (candidates != null) {
+                return repo.findAllEventsByIdsAndAfterDateAndSearch(candidates.ids(), candidates.changedSince(),
+                        afterDate, likeSearch, pageable);
+            }
             return repo.findAllEventsAndAfterDateAndSearch(afterDate, likeSearch ,pageable);
         } else if (search != null && !search.isEmpty()) {
             String likeSearch = "%" + search.toLowerCase().trim() + "%";
+            if (candidates != null) {
+                return repo.findAllEventsByIdsAndSearch(candidates.ids(), candidates.changedSince(),
+                        likeSearch, pageable);
+            }
             return repo.findAllEventsAndSearch(likeSearch ,pageable);
         } else if (afterDate != null) {
 
@@ -121,6 +210,126 @@ public class EventService {
 
     }
 
+    /**
+     * Keyset variant of getPagedEventsForUser: no offset and no COUNT, the next page continues
+     * after the (sort value, id) of the last row, which the returned cursor carries.
+     */
+    public CursorPageResponse<Event> getKeysetEventsForUser(User user, Integer size, String sortBy, String direction,
+                                                            LocalDate afterDate, String search, String cursor,
+                                                            boolean withTotal) {
+        return keysetPage(user, size, sortBy, direction, afterDate, search, cursor, withTotal);
+    }
+
+    public CursorPageResponse<Event> getKeysetEventsForAdmin(Integer size, String sortBy, String direction,
+                                                             LocalDate afterDate, String search, String cursor,
+                                                             boolean withTotal) {
+        return keysetPage(null, size, sortBy, direction, afterDate, search, cursor, withTotal);
+    }
+
+    // user null = all events
+    private CursorPageResponse<Event> keysetPage(User user, Integer size, String sortBy, String direction,
+                                                 LocalDate afterDate, String search, String cursor,
+                                                 boolean withTotal) {
+        // same defaults as offset paging
+        int s = (size == null || size <= 0 || size > 100) ? 10 : size;
+
+        Sort.Direction dir;
+        try {
+            dir = (direction == null) ? Sort.Direction.ASC : Sort.Direction.valueOf(direction.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            dir = Sort.Direction.ASC;
+        }
+        String sortProb = (sortBy == null || !ALLOWED_SORTS.contains(sortBy)) ? "id" : sortBy;
+        Sort sort = Sort.by(new Sort.Order(dir, sortProb) , new Sort.Order(dir , "id"));
+
+        List<Specification<Event>> filters = new ArrayList<>();
+        if (user != null) {
+            filters.add(EventSpecifications.ofUser(user));
+        }
+        if (afterDate != null) {
+            filters.add(EventSpecifications.onOrAfter(afterDate));
+        }
+        if (search != null && !search.isEmpty()) {
+            String term = search.toLowerCase().trim();
+            EventSearchIndex.Candidates candidates = searchIndex.candidates(term);
+            if (candidates != null) {
+                filters.add(EventSpecifications.idInOrChangedSince(candidates.ids(), candidates.changedSince()));
+            }
+            filters.add(EventSpecifications.textLike("%" + term + "%"));
+        }
+        Specification<Event> filter = Specification.allOf(filters);
+
+        Specification<Event> page = filter;
+        if (cursor != null && !cursor.isBlank()) {
+            EventCursor after = decodeCursor(cursor, sortProb, dir);
+            page = filter.and(EventSpecifications.after(sortProb, after.ascending(), cursorValue(after), after.id()));
+        }
+
+        // one row more than asked tells whether there is a next page
+        List<Event> rows = repo.findBy(page, q -> q.sortBy(sort).limit(s + 1).all());
+        boolean hasNext = rows.size() > s;
+        List<Event> content = hasNext ? rows.subList(0, s) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Event last = content.get(content.size() - 1);
+            nextCursor = new EventCursor(sortProb, dir.isAscending(), last.getId(), sortValue(last, sortProb)).encode();
+        }
+
+        Long total = null;
+        boolean approximate = false;
+        if (withTotal) {
+            if (filters.isEmpty()) {
+                // all events: table statistics instead of a full COUNT(*)
+                Number estimate = repo.estimateRowCount();
+                total = (estimate != null) ? estimate.longValue() : null;
+                approximate = true;
+            } else {
+                total = repo.count(filter);
+            }
+        }
+        return new CursorPageResponse<>(content, s, hasNext, nextCursor, total, approximate);
+    }
+
+    private static EventCursor decodeCursor(String cursor, String sortBy, Sort.Direction dir) {
+        EventCursor decoded;
+        try {
+            decoded = EventCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+        if (!decoded.sortBy().equals(sortBy) || decoded.ascending() != dir.isAscending()) {
+            throw new BadRequestException("Cursor was issued for a different sort, start again without it.");
+        }
+        return decoded;
+    }
+
+    private static Object cursorValue(EventCursor cursor) {
+        if (cursor.value() == null) {
+            return null;
+        }
+        try {
+            return switch (cursor.sortBy()) {
+                case "id" -> Long.valueOf(cursor.value());
+                case "eventDate" -> LocalDate.parse(cursor.value());
+                case "reminderTime" -> LocalDateTime.parse(cursor.value());
+                default -> cursor.value();
+            };
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    private static String sortValue(Event e, String sortBy) {
+        Object value = switch (sortBy) {
+            case "eventDate" -> e.getEventDate();
+            case "reminderTime" -> e.getReminderTime();
+            case "title" -> e.getTitle();
+            default -> e.getId();
+        };
+        return (value != null) ? value.toString() : null;
+    }
+
     public List<Map<String,Object>> getEventsPerDay() {
 
         LocalDate from = LocalDate.now();
@@ -183,9 +392,13 @@ public class EventService {
         createdEvent.setRecurrenceType(eventRequest.getRecurrenceType());
         createdEvent.setRecurrenceInterval(eventRequest.getRecurrenceInterval());
         createdEvent.setRecurrenceEndDate(eventRequest.getRecurrenceEndDate());
+        createdEvent.setRecurrenceRule(eventRequest.getRecurrenceRule());
+        applyRecurrenceRule(createdEvent);
         createdEvent.setUser(user);
 
-        return repo.save(createdEvent);
+        Event saved = saveAndSchedule(createdEvent);
+        dataVersions.bump(user.getId());
+        return saved;
     }
 
     public Event updateEvent(User user,Long id , EventRequest updatedEvent) {
@@ -200,12 +413,18 @@ public class EventService {
         event.setRecurrenceType(updatedEvent.getRecurrenceType());
         event.setRecurrenceInterval(updatedEvent.getRecurrenceInterval());
         event.setRecurrenceEndDate(updatedEvent.getRecurrenceEndDate());
+        event.setRecurrenceRule(updatedEvent.getRecurrenceRule());
+        applyRecurrenceRule(event);
         event.setReminderSent(false);
         event.setReminderSentTime(null);
 
-        return repo.save(event);
+        Event saved = saveAndSchedule(event);
+        dataVersions.bump(user.getId());
+        return saved;
     }
 
+    // the delete and the re-root of its series commit together, in-memory state follows the commit
+    @Transactional
     public void deleteEvent(User user,Long id) {
         Event event = repo.findById(id).orElse(null);
 
@@ -213,48 +432,319 @@ public class EventService {
             throw new SecurityException("Not allowed to delete this event");
         }
         repo.delete(event);
+        afterCommit(() -> {
+            reminderWheel.cancel(id);
+            searchIndex.remove(event);
+        });
+        occurrenceIndex.refresh(event);
+        if (event.getSeriesRootId() == null) {
+            // occurrences the scheduler created for this series were hidden behind it, the newest takes over
+            Long newRootId = repo.findLatestOfSeries(id);
+            if (newRootId != null) {
+                repo.reRootSeries(id, newRootId);
+                repo.clearSeriesRoot(newRootId);
+                occurrenceIndex.refreshSeries(user.getId(), newRootId);
+            }
+        }
+        dataVersions.bump(user.getId());
     }
 
-    @Scheduled(fixedDelay = 60000)
-    @Transactional
+    // the wheel tells us when reminders are due, the DB is only queried when something fires
+    @Scheduled(fixedDelayString = "${app.reminder.wheel.tick-ms:1000}")
     public void checkReminders() {
 
         LocalDateTime now = LocalDateTime.now().withNano(0);
         /*System.out.println("------------------------------------------------");
         System.out.println("checkReminders() running at: " + now);
         System.out.println("Local time: " + LocalDateTime.now());*/
-        List<Event> dueEvents = repo.findPendingReminders(now);
+        List<Long> fired = reminderWheel.pollDue(now);
+        boolean wheelFired = !fired.isEmpty();
+
+        // periodic sweep picks up reminders scheduled by other nodes and expired leases of crashed nodes
+        if (!wheelFired && nextSweep != null && now.isBefore(nextSweep)) {
+            return;
+        }
+        nextSweep = now.plusSeconds(sweepSeconds);
+        long tickStart = System.nanoTime();
+
+        List<Future<?>> inFlight = new ArrayList<>();
+        LocalDateTime freshFrom = catchUp.freshFrom(now);
+        LocalDateTime staleBefore = catchUp.staleBefore(now);
+
+        int fresh;
+        int backlog = 0;
+        long backlogSize;
+        try {
+            // reminders due within the fresh window always go first and in full
+            fresh = claimAndDispatch(now, now, new ReminderClaimService.Cursor(freshFrom, 0L),
+                    Integer.MAX_VALUE, staleBefore, inFlight);
+
+            // then the backlog left by downtime, oldest first, at a bounded rate
+            backlogSize = catchUp.refreshBacklog(now);
+            if (backlogSize > 0 && !emailBackpressure.isSaturated()) {
+                int budget = catchUp.drainBudget(now);
+                backlog = claimAndDispatch(now, freshFrom.minusNanos(1000), ReminderClaimService.Cursor.START,
+                        budget, staleBefore, inFlight);
+                if (backlog >= budget) {
+                    // the budget ran out before the backlog did, keep draining on the next tick
+                    // instead of waiting for the sweep
+                    nextSweep = now;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // the fired reminders left the wheel but may not be claimed, fire them again on the next tick.
+            // those that were claimed are skipped by that claim while their lease runs
+            reminderWheel.retry(fired, now);
+            throw ex;
+        }
+
+        // the tick ends when all its pages are dispatched, so ticks never overlap
+        for (Future<?> dispatch : inFlight) {
+            try {
+                dispatch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // already logged by the page, its leases expire and the reminders are retried
+            }
+        }
+
+        metrics.recordTick(System.nanoTime() - tickStart);
+
+        if (fresh + backlog > 0) {
+            log.info("Claimed {} due reminders ({} from a backlog of {}) at {} on {}", fresh + backlog, backlog,
+                    backlogSize, now, claimService.getNodeId());
+        }
+    }
+
+    // fixed-size keyset pages after cursor, each claimed in its own short transaction and dispatched
+    // in parallel, so memory stays flat no matter how large the backlog is. returns the number claimed
+    private int claimAndDispatch(LocalDateTime now, LocalDateTime dueUntil, ReminderClaimService.Cursor cursor,
+                                 int limit, LocalDateTime staleBefore, List<Future<?>> inFlight) {
+        int claimed = 0;
+        while (cursor != null && claimed < limit) {
+            int pageSize = Math.min(claimBatchSize, limit - claimed);
+            ReminderClaimService.ClaimedPage page = claimService.claimDueReminders(now, dueUntil, cursor, pageSize);
+            if (page.ids().isEmpty()) {
+                break;
+            }
+            Future<?> dispatch = dispatchAsync(page.ids(), now, staleBefore);
+            if (dispatch == null) {
+                break;
+            }
+            inFlight.add(dispatch);
+            claimed += page.ids().size();
+            metrics.recordBatchSize(page.ids().size());
+
+            // short page -> nothing more is due
+            cursor = (page.ids().size() < pageSize) ? null : page.end();
+
+            if (cursor != null && emailBackpressure.isSaturated()) {
+                // mail is falling behind, leave the rest in the DB and continue on the next tick
+                log.warn("Email executor saturated, deferring remaining due reminders");
+                nextSweep = now;
+                break;
+            }
+        }
+        return claimed;
+    }
+
+    // at most one page per dispatch thread in flight, which also bounds the JDBC connections used;
+    // returns null when interrupted while waiting for a free slot (the page's leases expire)
+    private Future<?> dispatchAsync(List<Long> claimedIds, LocalDateTime now, LocalDateTime staleBefore) {
+        try {
+            dispatchPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            return dispatchExecutor.submit(() -> {
+                try {
+                    txTemplate.executeWithoutResult(status -> dispatchClaimedReminders(claimedIds, now, staleBefore));
+                } catch (RuntimeException ex) {
+                    log.error("Failed to dispatch a page of {} reminders", claimedIds.size(), ex);
+                    // rolled back, the leases expire and the wheel fires the page again then
+                    reminderWheel.retry(claimedIds, claimService.reclaimableAt(now));
+                    throw ex;
+                } finally {
+                    dispatchPermits.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            dispatchPermits.release();
+            throw ex;
+        }
+    }
+
+    // reminders due before staleBefore (null = none) are handled by the catch-up stale policy
+    private void dispatchClaimedReminders(List<Long> claimedIds, LocalDateTime now, LocalDateTime staleBefore) {
+
+        List<Event> dueEvents = repo.findLeasedReminders(claimedIds, claimService.getNodeId());
+        Map<Long, Event> seriesRoots = loadSeriesRoots(dueEvents);
         List<Long> okIds = new ArrayList<>();
+        // next occurrences of recurring reminders, inserted together as one JDBC batch
+        List<Event> nextOccurrences = new ArrayList<>();
+
+        // digest users get one email for all their reminders in this page, everyone else one per event
+        Map<Long, List<Event>> digests = new LinkedHashMap<>();
+        List<Event> stale = new ArrayList<>();
+        // could not be queued, their leases are kept until they expire
+        List<Event> failed = new ArrayList<>();
 
         for(Event e : dueEvents) {
+            if (staleBefore != null && e.getReminderTime().isBefore(staleBefore)) {
+                stale.add(e);
+                continue;
+            }
+            if (e.getUser().isReminderDigest()) {
+                digests.computeIfAbsent(e.getUser().getId(), id -> new ArrayList<>()).add(e);
+                continue;
+            }
             //System.out.println("Scheduler running at: " + now);
             //System.out.println("Its time for event "+e.getTitle()+"("+e.getReminderTime()+")");
             try {
-                String html = emailService.buildReminderHtml(e);
-                emailService.sendReminderHtml(
+                // written in this page's transaction, sent later by EmailOutboxDispatcher
+                String html = metrics.timeRender(() -> emailService.buildReminderHtml(e));
+                emailOutbox.enqueue(
                         e.getUser().getEmail(),
                         "Reminder: "+e.getTitle() ,
-                        html
+                        html,
+                        EmailKind.REMINDER,
+                        e.getId(),
+                        e.getReminderTime()
                 );
                 okIds.add(e.getId());
 
                 //handle Recurrence
-                createNextOccurenceIfRecurring(e);
+                createNextOccurenceIfRecurring(e, seriesRoots, nextOccurrences);
 
             } catch (Exception ex) {
-                log.error("Failed to send Email for event {}", e.getId(), ex);
+                // lease is kept and expires, the reminder is retried after lease-seconds
+                metrics.recordFailure("queue");
+                log.error("Failed to queue Email for event {}", e.getId(), ex);
+                failed.add(e);
+            }
+        }
+
+        digests.values().forEach(events -> queueDigest(events, now, seriesRoots, okIds, nextOccurrences, failed));
+
+        if (!stale.isEmpty()) {
+            handleStaleReminders(stale, seriesRoots, okIds, nextOccurrences, failed);
+        }
+
+        // the wheel only changes once the page is committed, a rollback retries the whole page
+        afterCommit(() -> {
+            okIds.forEach(reminderWheel::cancel);
+            for (Event e : failed) {
+                LocalDateTime retryAt = claimService.reclaimableAt(now);
+                if (e.getReminderTime().isAfter(retryAt)) {
+                    // a digest reminder claimed before it was due
+                    retryAt = e.getReminderTime();
+                }
+                reminderWheel.retry(List.of(e.getId()), retryAt);
             }
+        });
+
+        if (!nextOccurrences.isEmpty()) {
+            metrics.timeNextOccurrences(() -> saveAllAndSchedule(nextOccurrences));
         }
 
         if (!okIds.isEmpty()) {
             int updated = repo.markRemindersSentByIds(okIds);
             //System.out.println("Proccessed "+updated+" reminders at "+now);
-            log.info("Proccessed {} reminders at {} ",updated,now);
+            log.debug("Proccessed {} reminders at {} ", updated, now);
+        }
+
+        // sent flags and next occurrences change what these users' reads return
+        dataVersions.bump(dueEvents.stream().map(e -> e.getUser().getId()).distinct().toList());
+    }
+
+    // one email with the user's due reminders plus those due within the digest window,
+    // reminders are still marked sent per event
+    private void queueDigest(List<Event> dueEvents, LocalDateTime now, Map<Long, Event> seriesRoots,
+                             List<Long> okIds, List<Event> nextOccurrences, List<Event> failed) {
+        User user = dueEvents.get(0).getUser();
+        List<Event> events = new ArrayList<>(dueEvents);
+        try {
+            List<Long> upcomingIds = claimService.claimPendingRemindersOfUser(
+                    user.getId(), now, now.plusMinutes(digestWindowMinutes));
+            if (!upcomingIds.isEmpty()) {
+                List<Event> upcoming = repo.findLeasedReminders(upcomingIds, claimService.getNodeId());
+                seriesRoots.putAll(loadSeriesRoots(upcoming));
+                events.addAll(upcoming);
+                events.sort(Comparator.comparing(Event::getReminderTime).thenComparing(Event::getId));
+            }
+
+            Event first = events.get(0);
+            if (events.size() == 1) {
+                emailOutbox.enqueue(user.getEmail(), "Reminder: " + first.getTitle(),
+                        metrics.timeRender(() -> emailService.buildReminderHtml(first)),
+                        EmailKind.REMINDER, first.getId(), first.getReminderTime());
+            } else {
+                emailOutbox.enqueue(user.getEmail(), "Reminder: " + events.size() + " upcoming events",
+                        metrics.timeRender(() ->
+                                emailService.buildReminderDigestHtml(events.size() + " upcoming reminders", events)),
+                        EmailKind.REMINDER_DIGEST, null, first.getReminderTime());
+            }
+
+            List<Long> ids = new ArrayList<>();
+            List<Event> next = new ArrayList<>();
+            for (Event e : events) {
+                ids.add(e.getId());
+                createNextOccurenceIfRecurring(e, seriesRoots, next);
+            }
+            okIds.addAll(ids);
+            nextOccurrences.addAll(next);
+        } catch (Exception ex) {
+            // leases are kept and expire, the digest is retried after lease-seconds
+            metrics.recordFailure("queue");
+            log.error("Failed to queue reminder digest for user {}", user.getId(), ex);
+            failed.addAll(events);
+        }
+    }
+
+    // SKIP: marked sent without an email, DIGEST: one "missed reminders" email per user.
+    // recurring series continue either way
+    private void handleStaleReminders(List<Event> stale, Map<Long, Event> seriesRoots, List<Long> okIds,
+                                      List<Event> nextOccurrences, List<Event> failed) {
+        ReminderCatchUp.StalePolicy policy = catchUp.getStalePolicy();
+
+        if (policy == ReminderCatchUp.StalePolicy.DIGEST) {
+            Map<Long, List<Event>> byUser = new LinkedHashMap<>();
+            stale.forEach(e -> byUser.computeIfAbsent(e.getUser().getId(), id -> new ArrayList<>()).add(e));
+
+            stale = new ArrayList<>();
+            for (List<Event> events : byUser.values()) {
+                try {
+                    emailOutbox.enqueue(events.get(0).getUser().getEmail(),
+                            "Missed reminders: " + events.size() + " events",
+                            metrics.timeRender(() ->
+                                    emailService.buildReminderDigestHtml(events.size() + " missed reminders", events)),
+                            EmailKind.REMINDER_DIGEST);
+                    stale.addAll(events);
+                } catch (Exception ex) {
+                    // leases are kept and expire, retried after lease-seconds
+                    log.error("Failed to queue missed reminders digest for user {}",
+                            events.get(0).getUser().getId(), ex);
+                    failed.addAll(events);
+                }
+            }
         }
 
+        for (Event e : stale) {
+            okIds.add(e.getId());
+            createNextOccurenceIfRecurring(e, seriesRoots, nextOccurrences);
+        }
+        catchUp.recordStale(policy, stale.size());
+        log.info("{} stale reminders handled with policy {}", stale.size(), policy);
     }
 
-    private void createNextOccurenceIfRecurring(Event e) {
+    // the next occurrence is added to nextOccurrences, the caller saves them in one batch.
+    // dates are derived from the series root's start date, not the previous occurrence, so month-end
+    // clamping does not drift (Jan 31 -> Feb 29 -> Mar 31, not Mar 29) and matches the calendar
+    private void createNextOccurenceIfRecurring(Event e, Map<Long, Event> seriesRoots, List<Event> nextOccurrences) {
         if (e.getRecurrenceType() == null || e.getRecurrenceType() == RecurrenceType.NONE) {
             return;
         }
@@ -263,15 +753,19 @@ public class EventService {
                 ? e.getRecurrenceInterval()
                 : 1;
 
-        LocalDate nextDate = e.getEventDate();
+        Long rootId = (e.getSeriesRootId() != null) ? e.getSeriesRootId() : e.getId();
+        LocalDate anchor = seriesAnchor(e, seriesRoots.get(rootId));
+        LocalDate nextDate;
 
-        nextDate = addInterval(nextDate , e.getRecurrenceType(),interval);
-        /*switch (e.getRecurrenceType()) {
-            case DAILY -> nextDate = nextDate.plusDays(interval);
-            case WEEKLY -> nextDate = nextDate.plusWeeks(interval);
-            case MONTHLY -> nextDate = nextDate.plusMonths(interval);
-            case YEARLY -> nextDate = nextDate.plusYears(interval);
-        }*/
+        if (e.getRecurrenceRule() != null) {
+            // COUNT is counted from the series start, not restarted at every occurrence
+            nextDate = RecurrenceRule.compile(e.getRecurrenceRule()).nextAfter(anchor, e.getEventDate());
+            if (nextDate == null) {
+                return;
+            }
+        } else {
+            nextDate = RecurrenceMath.nextAfter(anchor, e.getRecurrenceType(), interval, e.getEventDate());
+        }
 
         if(e.getRecurrenceEndDate() != null && e.getRecurrenceEndDate().isBefore(nextDate)) {
             return;
@@ -283,104 +777,321 @@ public class EventService {
         next.setDescription(e.getDescription());
         next.setUser(e.getUser());
         next.setEventDate(nextDate);
+        next.setSeriesRootId(rootId);
 
-
-        if (e.getReminderTime() != null ) {
-
-            LocalDateTime nextReminder = e.getReminderTime();
-            switch (e.getRecurrenceType()) {
-                case DAILY -> nextReminder = nextReminder.plusDays(interval);
-                case WEEKLY -> nextReminder = nextReminder.plusWeeks(interval);
-                case MONTHLY -> nextReminder = nextReminder.plusMonths(interval);
-                case YEARLY -> nextReminder = nextReminder.plusYears(interval);
-            }
-            next.setReminderTime(nextReminder);
+        if (e.getReminderTime() != null) {
+            // same days before the event and time of day as this occurrence's reminder
+            next.setReminderTime(OccurrenceExpansion.shiftReminder(e.getReminderTime(), e.getEventDate(), nextDate));
         }
 
         next.setRecurrenceType(e.getRecurrenceType());
         next.setRecurrenceInterval(interval);
         next.setRecurrenceEndDate(e.getRecurrenceEndDate());
+        next.setRecurrenceRule(e.getRecurrenceRule());
 
-        repo.save(next);
+        nextOccurrences.add(next);
     }
 
-    public List<EventResponse> getCalendarEvents(User user,LocalDate start,LocalDate end) {
+    // roots of the series the scheduler-created occurrences among events continue, by id
+    private Map<Long, Event> loadSeriesRoots(List<Event> events) {
+        Set<Long> rootIds = new HashSet<>();
+        for (Event e : events) {
+            if (e.getSeriesRootId() != null) {
+                rootIds.add(e.getSeriesRootId());
+            }
+        }
+        Map<Long, Event> roots = new HashMap<>();
+        if (!rootIds.isEmpty()) {
+            repo.findAllById(rootIds).forEach(root -> roots.put(root.getId(), root));
+        }
+        return roots;
+    }
 
-        List<EventResponse> result = new ArrayList<>();
+    // the root's start date while it still describes the same series, otherwise e's own date
+    private static LocalDate seriesAnchor(Event e, Event root) {
+        if (root == null || root == e || root.isException()
+                || root.getRecurrenceType() != e.getRecurrenceType()
+                || !Objects.equals(root.getRecurrenceInterval(), e.getRecurrenceInterval())
+                || !Objects.equals(root.getRecurrenceRule(), e.getRecurrenceRule())
+                || root.getEventDate().isAfter(e.getEventDate())) {
+            return e.getEventDate();
+        }
+        return root.getEventDate();
+    }
 
-        // single events in this range
-        List<Event> singles = repo.findSinglesInRange(user,start,end);
+    private Event saveAndSchedule(Event e) {
+        Event saved = repo.save(e);
+        reminderWheel.schedule(saved.getId(), saved.isReminderSent() ? null : saved.getReminderTime());
+        occurrenceIndex.refresh(saved);
+        searchIndex.add(saved);
+        return saved;
+    }
 
-        singles.forEach(e-> result.add(EventResponse.fromEntity(e)));
+    // ids come from the pooled sequence, so the inserts are flushed as JDBC batches
+    private void saveAllAndSchedule(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Event> saved = repo.saveAll(events);
+        for (Event e : saved) {
+            reminderWheel.schedule(e.getId(), e.isReminderSent() ? null : e.getReminderTime());
+        }
+        occurrenceIndex.refreshAll(saved);
+        searchIndex.addAll(saved);
+    }
 
-        // exception events in this range
-        List<Event> exceptions = repo.findExceptionsInRange(user,start,end);
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 
-        Map <Long , List<Event>> exceptionsByParent =  new HashMap<>();
-        for (Event ex :  exceptions) {
-            if (ex.getParentEventId() != null) {
-                exceptionsByParent
-                        .computeIfAbsent(ex.getParentEventId(), k -> new ArrayList<>())
-                        .add(ex);
+    /**
+     * Occurrences in [start, end], served from per-month cache buckets. Months that are not cached
+     * are expanded together in one pass, split by month and cached (empty months included).
+     */
+    public List<EventResponse> getCalendarEvents(User user,LocalDate start,LocalDate end) {
+        List<EventResponse> result = new ArrayList<>();
+        forEachCalendarEvent(user, start, end, Integer.MAX_VALUE, result::add);
+        return result;
+    }
+
+    /**
+     * Same occurrences as getCalendarEvents, handed to sink window by window
+     * so at most stream-window-months of expanded months are held at a time.
+     */
+    public void streamCalendarEvents(User user, LocalDate start, LocalDate end, Consumer<EventResponse> sink) {
+        forEachCalendarEvent(user, start, end, calendarStreamWindowMonths, sink);
+    }
+
+    private void forEachCalendarEvent(User user, LocalDate start, LocalDate end, int windowMonths,
+                                      Consumer<EventResponse> sink) {
+        // read with the user at the start of the request, before any row is loaded
+        long version = user.getDataVersion();
+
+        YearMonth last = YearMonth.from(end);
+        for (YearMonth from = YearMonth.from(start); !from.isAfter(last); ) {
+            long remaining = ChronoUnit.MONTHS.between(from, last);
+            YearMonth to = from.plusMonths(Math.min(remaining, windowMonths - 1L));
+
+            for (List<EventResponse> occurrences : calendarMonths(user, version, from, to).values()) {
+                for (EventResponse r : occurrences) {
+                    if (!r.getEventDate().isBefore(start) && !r.getEventDate().isAfter(end)) {
+                        sink.accept(r);
+                    }
+                }
             }
+            from = to.plusMonths(1);
         }
+    }
 
-        // recurring masters
-        List<Event> masters = repo.findRecurringMasterAffectingRange(user,start,end);
+    private Map<YearMonth, List<EventResponse>> calendarMonths(User user, long version,
+                                                              YearMonth first, YearMonth last) {
+        long userId = user.getId();
+
+        Map<YearMonth, List<EventResponse>> months = new TreeMap<>();
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth m = first; !m.isAfter(last); m = m.plusMonths(1)) {
+            List<EventResponse> cached = calendarCache.get(userId, version, m);
+            if (cached != null) {
+                months.put(m, cached);
+            } else {
+                missing.add(m);
+            }
+        }
 
-        for (Event master :  masters) {
-            List<Event> exForThisMaster = exceptionsByParent.getOrDefault(master.getId(),List.of());
+        if (!missing.isEmpty()) {
+            Map<YearMonth, List<EventResponse>> loaded = new HashMap<>();
+            missing.forEach(m -> loaded.put(m, new ArrayList<>()));
+
+            LocalDate loadStart = missing.get(0).atDay(1);
+            LocalDate loadEnd = missing.get(missing.size() - 1).atEndOfMonth();
+            for (EventResponse r : loadCalendarEvents(user, loadStart, loadEnd)) {
+                // null for cached months lying between two missing ones
+                List<EventResponse> bucket = loaded.get(YearMonth.from(r.getEventDate()));
+                if (bucket != null) {
+                    bucket.add(r);
+                }
+            }
+            loaded.forEach((m, occurrences) -> calendarCache.put(userId, version, m, occurrences));
+            months.putAll(loaded);
+        }
+        return months;
+    }
 
-            result.addAll(
-                expandMastersIntoOcurrences(master,start,end,exForThisMaster)
-            );
+    // DTO projection read through a MySQL streaming result set: nothing enters the persistence context,
+    // so memory stays flat however many events the user has
+    @Transactional
+    public void streamEventsForUser(User user, Consumer<EventResponse> sink) {
+        try (Stream<EventResponse> rows = repo.streamResponsesByUser(user.getId())) {
+            rows.forEach(sink);
         }
+    }
 
+    /**
+     * Compares the occurrence index against a fresh expansion for one user and range,
+     * optionally re-materialising the user when they differ.
+     */
+    public Map<String, Object> verifyOccurrenceIndex(User user, LocalDate start, LocalDate end, boolean repair) {
+        if (end.isBefore(start)) {
+            throw new BadRequestException("end must not be before start.");
+        }
+        Map<String, Integer> expected = occurrenceKeys(expandCalendarEvents(user.getId(), start, end));
+        Map<String, Integer> indexed = occurrenceKeys(occurrenceIndex.find(user.getId(), start, end));
+
+        int missing = 0;
+        int extra = 0;
+        Set<String> keys = new HashSet<>(expected.keySet());
+        keys.addAll(indexed.keySet());
+        for (String key : keys) {
+            int diff = expected.getOrDefault(key, 0) - indexed.getOrDefault(key, 0);
+            if (diff > 0) {
+                missing += diff;
+            } else {
+                extra -= diff;
+            }
+        }
 
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("covered", occurrenceIndex.covers(start, end));
+        result.put("expected", expected.values().stream().mapToInt(Integer::intValue).sum());
+        result.put("missing", missing);
+        result.put("extra", extra);
+        if (repair && (missing > 0 || extra > 0)) {
+            // bumps the data version, calendar reads served from the index change with the repair
+            result.put("repairedRows", occurrenceIndex.repairUser(user));
+        }
         return result;
-
     }
 
-    private List<EventResponse> expandMastersIntoOcurrences(
-            Event master,
-            LocalDate rangeStart, LocalDate rangeEnd,
-            List<Event> exceptions
-    ) {
-
-        List<EventResponse> list = new ArrayList<>();
+    private static Map<String, Integer> occurrenceKeys(List<EventResponse> occurrences) {
+        Map<String, Integer> keys = new HashMap<>();
+        for (EventResponse r : occurrences) {
+            keys.merge(r.getId() + "|" + r.getEventDate() + "|" + r.getReminderTime() + "|" + r.isException(),
+                    1, Integer::sum);
+        }
+        return keys;
+    }
 
-        int interval = (master.getRecurrenceInterval() != null && master.getRecurrenceInterval() > 0)
-                ? master.getRecurrenceInterval() : 1;
+    private List<EventResponse> loadCalendarEvents(User user,LocalDate start,LocalDate end) {
+        // inside the materialised horizon this is one indexed range scan, no expansion
+        if (occurrenceIndex.covers(start, end)) {
+            return occurrenceIndex.find(user.getId(), start, end);
+        }
+        return expandCalendarEvents(user.getId(), start, end);
+    }
 
-        LocalDate cursor = master.getEventDate();
+    // OccurrenceIndex materialises with the same rules, see OccurrenceExpansion
+    List<EventResponse> expandCalendarEvents(Long userId, LocalDate start, LocalDate end) {
+        return OccurrenceExpansion.expandRows(repo.findCalendarRows(userId, start, end), start, end);
+    }
 
-        //bring cursor forward to first visible date
-        while (cursor.isBefore(rangeStart)) {
-            cursor = addInterval(cursor, master.getRecurrenceType(), interval);
+    /**
+     * Days in [start, end] with at least one occurrence, from per-month masks in the calendar cache.
+     * Missing months are computed in one pass without building occurrence DTOs.
+     */
+    public BusyDaysResponse getBusyDays(User user, LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new BadRequestException("end must not be before start.");
+        }
+        if (DAYS.between(start, end) >= MAX_BUSY_DAYS_RANGE) {
+            throw new BadRequestException("Range must not exceed " + MAX_BUSY_DAYS_RANGE + " days.");
+        }
+        long userId = user.getId();
+        long version = user.getDataVersion();
+
+        Map<YearMonth, Integer> masks = new HashMap<>();
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth m = YearMonth.from(start); !m.isAfter(YearMonth.from(end)); m = m.plusMonths(1)) {
+            Integer cached = calendarCache.getBusyDays(userId, version, m);
+            if (cached != null) {
+                masks.put(m, cached);
+            } else {
+                missing.add(m);
+            }
         }
 
-        //master series ends either at its recurrenceEndDate or at rangeEnd
-        LocalDate limit = master.getRecurrenceEndDate() != null &&
-                master.getRecurrenceEndDate().isBefore(rangeEnd)
-                ? master.getRecurrenceEndDate()
-                : rangeEnd;
+        if (!missing.isEmpty()) {
+            LocalDate loadStart = missing.get(0).atDay(1);
+            LocalDate loadEnd = missing.get(missing.size() - 1).atEndOfMonth();
+            BitSet loaded = loadBusyDays(userId, loadStart, loadEnd);
+            for (YearMonth m : missing) {
+                int offset = (int) DAYS.between(loadStart, m.atDay(1));
+                long[] words = loaded.get(offset, offset + m.lengthOfMonth()).toLongArray();
+                int mask = (words.length > 0) ? (int) words[0] : 0;
+                calendarCache.putBusyDays(userId, version, m, mask);
+                masks.put(m, mask);
+            }
+        }
 
-        // create indexed exception map
-        Set<LocalDate> exceptionDates = exceptions.stream()
-                .map(Event::getOriginalDate)
-                .collect(Collectors.toSet());
+        BitSet days = new BitSet();
+        long first = start.toEpochDay();
+        long last = end.toEpochDay();
+        masks.forEach((m, mask) -> {
+            long monthStart = m.atDay(1).toEpochDay();
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                long day = monthStart + Integer.numberOfTrailingZeros(bits);
+                if (day >= first && day <= last) {
+                    days.set((int) (day - first));
+                }
+            }
+        });
+        return new BusyDaysResponse(start, end, days.cardinality(),
+                Base64.getEncoder().encodeToString(days.toByteArray()));
+    }
 
-        //expand occurrences
-        while (!cursor.isAfter(limit)) {
+    // bit i = start + i days
+    private BitSet loadBusyDays(Long userId, LocalDate start, LocalDate end) {
+        BitSet days = new BitSet();
+        long first = start.toEpochDay();
 
-            if (!exceptionDates.contains(cursor)) {
-                list.add(createOccurrenceFromMaster(master, cursor));
+        if (occurrenceIndex.covers(start, end)) {
+            for (LocalDate date : occurrenceIndex.findBusyDates(userId, start, end)) {
+                days.set((int) (date.toEpochDay() - first));
             }
+            return days;
+        }
+
+        OccurrenceExpansion.forEachBusyDay(repo.findCalendarRows(userId, start, end), start, end,
+                day -> days.set((int) (day - first)));
+        return days;
+    }
 
-            cursor = addInterval(cursor, master.getRecurrenceType(), interval);
+    // a rule sets type and interval so the recurring-master queries keep working, and a bounded rule
+    // (COUNT / UNTIL) sets recurrenceEndDate to its last occurrence so ended series are not loaded
+    private void applyRecurrenceRule(Event e) {
+        if (e.getRecurrenceRule() == null || e.getRecurrenceRule().isBlank()) {
+            e.setRecurrenceRule(null);
+            return;
+        }
+        RecurrenceRule rule;
+        try {
+            rule = RecurrenceRule.compile(e.getRecurrenceRule());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid recurrence rule: " + ex.getMessage());
         }
+        e.setRecurrenceRule(rule.toString());
+        e.setRecurrenceType(rule.getFrequency());
+        e.setRecurrenceInterval(rule.getInterval());
+        syncRecurrenceEnd(e, rule);
+    }
 
-        return list;
+    private void syncRecurrenceEnd(Event e, RecurrenceRule rule) {
+        if (rule.getCount() == 0 && rule.getUntil() == null) {
+            return;
+        }
+        LocalDate last = rule.lastOccurrence(e.getEventDate());
+        if (last == null) {
+            throw new BadRequestException("Recurrence rule has no occurrences from the event date.");
+        }
+        e.setRecurrenceEndDate(last);
     }
 
     @Transactional
@@ -419,6 +1130,7 @@ public class EventService {
             default:
                 throw new BadRequestException("Unknown mode: " + mode);
         }
+        dataVersions.bump(user.getId());
     }
 
     private void moveSingleOcurrence(Event master,LocalDate originalDate, LocalDate newDate) {
@@ -459,7 +1171,7 @@ public class EventService {
             ex.setReminderTime(newReminder);*/
         }
         ex.setEventDate(newDate);
-        repo.save(ex);
+        saveAndSchedule(ex);
 
     }
 
@@ -516,6 +1228,15 @@ public class EventService {
             newMaster.setRecurrenceType(master.getRecurrenceType());
             newMaster.setRecurrenceInterval(master.getRecurrenceInterval());
             newMaster.setRecurrenceEndDate(oldEnd);
+            newMaster.setRecurrenceRule(master.getRecurrenceRule());
+            if (master.getRecurrenceRule() != null) {
+                RecurrenceRule rule = RecurrenceRule.compile(master.getRecurrenceRule());
+                if (rule.getCount() > 0) {
+                    // the later part only gets what the earlier part has not used up
+                    rule = rule.withCount(rule.getCount() - rule.countBefore(master.getEventDate(), originalDate));
+                    newMaster.setRecurrenceRule(rule.toString());
+                }
+            }
 
 
             if (master.getReminderTime() != null) {
@@ -527,16 +1248,23 @@ public class EventService {
             }
 
             newMaster.setEventDate(newStartDate);
+            if (newMaster.getRecurrenceRule() != null) {
+                syncRecurrenceEnd(newMaster, RecurrenceRule.compile(newMaster.getRecurrenceRule()));
+            }
 
-            repo.save(newMaster);
+            saveAndSchedule(newMaster);
         }
 
         repo.deleteExceptionsForMasterAfter(master.getId(), originalDate);
+        occurrenceIndex.refreshSeries(master.getUser().getId(), master.getId());
     }
 
     private void updateMasterStartDate(Event newMaster, LocalDate originalDate, LocalDate newStartDate) {
 
         newMaster.setEventDate(newStartDate);
+        if (newMaster.getRecurrenceRule() != null) {
+            syncRecurrenceEnd(newMaster, RecurrenceRule.compile(newMaster.getRecurrenceRule()));
+        }
 
         if (newMaster.getReminderTime() != null) {
             newMaster.setReminderTime(updateReminderTime(
@@ -546,7 +1274,7 @@ public class EventService {
             ));
         }
 
-        repo.save(newMaster);
+        saveAndSchedule(newMaster);
     }
 
     private  void moveAllOcurrences(Event master , LocalDate newStartDate) {
@@ -569,8 +1297,13 @@ public class EventService {
 
         }
         master.setEventDate(newStartDate);
-        repo.save(master);
+        if (master.getRecurrenceRule() != null) {
+            // COUNT occurrences are counted from the new start
+            syncRecurrenceEnd(master, RecurrenceRule.compile(master.getRecurrenceRule()));
+        }
+        saveAndSchedule(master);
         repo.deleteExceptionsOfMaster(master.getId());
+        occurrenceIndex.refreshSeries(master.getUser().getId(), master.getId());
     }
 
     private void validateEventDate(LocalDate newDate) {
@@ -598,7 +1331,7 @@ public class EventService {
         ex.setReminderSent(false);
         ex.setReminderSentTime(null);
 
-        repo.save(ex);
+        saveAndSchedule(ex);
 
     }
 
@@ -620,17 +1353,8 @@ public class EventService {
         }
 
         e.setEventDate(newDate);
-        repo.save(e);
-    }
-
-    private LocalDate addInterval(LocalDate d, RecurrenceType type, int interval) {
-        return switch (type) {
-            case DAILY -> d.plusDays(interval);
-            case WEEKLY -> d.plusWeeks(interval);
-            case MONTHLY -> d.plusMonths(interval);
-            case YEARLY -> d.plusYears(interval);
-            default -> d;
-        };
+        saveAndSchedule(e);
+        dataVersions.bump(user.getId());
     }
 
     private Event createOccurrence(Event master, LocalDate originalDate,
@@ -664,39 +1388,12 @@ public class EventService {
                                              LocalDate oldEventDate,
                                              LocalDate newEventDate) {
 
-        long daysBetween = DAYS.between(oldReminder.toLocalDate(), oldEventDate);
-
         // Reminder new = Event new - same days gap
-        LocalDate newReminderDate = newEventDate.minusDays(daysBetween);
-
-        LocalDateTime newReminder = LocalDateTime.of(newReminderDate, oldReminder.toLocalTime());
+        LocalDateTime newReminder = OccurrenceExpansion.shiftReminder(oldReminder, oldEventDate, newEventDate);
 
         validateReminderNotPast(newReminder);
 
         return newReminder;
     }
 
-    private EventResponse createOccurrenceFromMaster(Event master, LocalDate date) {
-        EventResponse dto = new EventResponse();
-
-        dto.setId(master.getId());
-        dto.setTitle(master.getTitle());
-        dto.setDescription(master.getDescription());
-
-        if (master.getReminderTime() != null) {
-            dto.setReminderTime(updateReminderTime(master.getReminderTime(),master.getEventDate(), date));
-        }
-
-        dto.setEventDate(date);
-        dto.setRecurrenceType(master.getRecurrenceType());
-        dto.setRecurrenceInterval(master.getRecurrenceInterval());
-        dto.setRecurrenceEndDate(master.getRecurrenceEndDate());
-
-        dto.setParentEventId(master.getId());
-        dto.setException(false);
-        dto.setOriginalDate(date);
-
-        return dto;
-    }
-
 }
@@ -0,0 +1,230 @@
+package com.example.reminder.service;
+
+import com.example.reminder.dto.CalendarEventRow;
+import com.example.reminder.dto.EventResponse;
+import com.example.reminder.model.Event;
+import com.example.reminder.model.EventOccurrence;
+import com.example.reminder.model.RecurrenceType;
+import com.example.reminder.recurrence.OccurrenceCursor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+
+/**
+ * Expansion of a recurring master into its occurrences. Shared by the calendar read path
+ * and the occurrence index so both produce exactly the same occurrences.
+ *
+ * Exceptions show on their own date (none for the skip exceptions of a split series, which have
+ * no date) and hide the master's occurrence on their original date. Occurrences the scheduler
+ * created for a series (Event.seriesRootId) are hidden while the series root exists, the root's
+ * expansion already shows them.
+ *
+ * The walk runs on epoch days against a sorted array of exception days; objects are only
+ * created for occurrences that are actually emitted.
+ */
+final class OccurrenceExpansion {
+
+    private static final long[] NO_DAYS = new long[0];
+
+    private OccurrenceExpansion() {
+    }
+
+    /** what the calendar shows in [start, end] for the rows of EventRepository.findCalendarRows */
+    static List<EventResponse> expandRows(List<CalendarEventRow> rows, LocalDate start, LocalDate end) {
+        List<EventResponse> result = new ArrayList<>();
+        Map<Long, List<LocalDate>> exceptionDates = new HashMap<>();
+        List<CalendarEventRow> masters = split(rows, start, end, exceptionDates, row -> result.add(row.toResponse()));
+        for (CalendarEventRow master : masters) {
+            result.addAll(expand(master, start, end, exceptionDates.getOrDefault(master.id(), List.of())));
+        }
+        return result;
+    }
+
+    /** epoch days in [start, end] with an occurrence among rows, in no particular order and possibly repeated */
+    static void forEachBusyDay(List<CalendarEventRow> rows, LocalDate start, LocalDate end, LongConsumer sink) {
+        Map<Long, List<LocalDate>> exceptionDates = new HashMap<>();
+        List<CalendarEventRow> masters = split(rows, start, end, exceptionDates,
+                row -> sink.accept(row.eventDate().toEpochDay()));
+        for (CalendarEventRow master : masters) {
+            forEachDay(master, start, end, exceptionDates.getOrDefault(master.id(), List.of()), sink);
+        }
+    }
+
+    /**
+     * index rows of events in [start, end], same occurrences as expandRows. exceptionDates holds the
+     * original dates of all exceptions of the masters among events
+     */
+    static List<EventOccurrence> materialise(List<Event> events, Map<Long, List<LocalDate>> exceptionDates,
+                                             LocalDate start, LocalDate end) {
+        List<EventOccurrence> rows = new ArrayList<>();
+        for (Event e : events) {
+            Long userId = e.getUser().getId();
+            if (e.isException() || e.getRecurrenceType() == RecurrenceType.NONE) {
+                LocalDate date = e.getEventDate();
+                if (inRange(date, start, end)) {
+                    Long seriesId = e.isException() ? e.getParentEventId() : null;
+                    rows.add(new EventOccurrence(userId, e.getId(), seriesId, date, e.getReminderTime(), false));
+                }
+            } else if (isMaster(e) && !e.getEventDate().isAfter(end)) {
+                Long id = e.getId();
+                ReminderShift shift = ReminderShift.of(e.getReminderTime(), e.getEventDate());
+                forEachDay(CalendarEventRow.of(e), start, end, exceptionDates.getOrDefault(id, List.of()),
+                        day -> rows.add(new EventOccurrence(userId, id, id, LocalDate.ofEpochDay(day),
+                                (shift != null) ? shift.at(day) : null, true)));
+            }
+        }
+        return rows;
+    }
+
+    static boolean isMaster(Event e) {
+        return !e.isException() && e.getRecurrenceType() != null && e.getRecurrenceType() != RecurrenceType.NONE
+                && e.getEventDate() != null;
+    }
+
+    /** an occurrence the scheduler created for a series whose root is among existingIds */
+    static boolean isHiddenCarrier(Event e, Set<Long> existingIds) {
+        return e.getSeriesRootId() != null && existingIds.contains(e.getSeriesRootId());
+    }
+
+    // singles and exceptions showing in [start, end] go to stored, masters are returned
+    // and the original dates of their exceptions collected
+    private static List<CalendarEventRow> split(List<CalendarEventRow> rows, LocalDate start, LocalDate end,
+                                                Map<Long, List<LocalDate>> exceptionDates,
+                                                Consumer<CalendarEventRow> stored) {
+        List<CalendarEventRow> masters = new ArrayList<>();
+        for (CalendarEventRow row : rows) {
+            if (row.isException()) {
+                if (row.parentEventId() != null && row.originalDate() != null) {
+                    exceptionDates.computeIfAbsent(row.parentEventId(), k -> new ArrayList<>())
+                            .add(row.originalDate());
+                }
+                if (inRange(row.eventDate(), start, end)) {
+                    stored.accept(row);
+                }
+            } else if (row.isSingle()) {
+                if (inRange(row.eventDate(), start, end)) {
+                    stored.accept(row);
+                }
+            } else if (row.eventDate() != null) {
+                masters.add(row);
+            }
+        }
+        return masters;
+    }
+
+    private static boolean inRange(LocalDate date, LocalDate start, LocalDate end) {
+        return date != null && !date.isBefore(start) && !date.isAfter(end);
+    }
+
+    /** occurrences of master in [rangeStart, rangeEnd], skipping the original dates of its exceptions */
+    static List<EventResponse> expand(CalendarEventRow master, LocalDate rangeStart, LocalDate rangeEnd,
+                                      Collection<LocalDate> exceptionDates) {
+        List<EventResponse> list = new ArrayList<>();
+        ReminderShift shift = ReminderShift.of(master.reminderTime(), master.eventDate());
+        forEachDay(master, rangeStart, rangeEnd, exceptionDates, day -> list.add(occurrence(master, day, shift)));
+        return list;
+    }
+
+    /** epoch days of the occurrences of master in [rangeStart, rangeEnd], ascending, exceptions skipped */
+    static void forEachDay(CalendarEventRow master, LocalDate rangeStart, LocalDate rangeEnd,
+                           Collection<LocalDate> exceptionDates, LongConsumer sink) {
+
+        //master series ends either at its recurrenceEndDate or at rangeEnd
+        LocalDate limit = master.recurrenceEndDate() != null &&
+                master.recurrenceEndDate().isBefore(rangeEnd)
+                ? master.recurrenceEndDate()
+                : rangeEnd;
+        long last = limit.toEpochDay();
+
+        long[] skip = sortedEpochDays(exceptionDates);
+        int nextSkip = 0;
+
+        // jumps straight to the first visible occurrence, independent of how old the series is
+        OccurrenceCursor cursor = OccurrenceCursor.of(master.eventDate(), master.recurrenceType(),
+                master.recurrenceInterval(), master.recurrenceRule());
+        cursor.skipTo(rangeStart.toEpochDay());
+
+        for (long day = cursor.nextEpochDay(); day != OccurrenceCursor.END && day <= last;
+             day = cursor.nextEpochDay()) {
+            // both ascending, so one forward pass over the exceptions
+            while (nextSkip < skip.length && skip[nextSkip] < day) {
+                nextSkip++;
+            }
+            if (nextSkip < skip.length && skip[nextSkip] == day) {
+                continue;
+            }
+            sink.accept(day);
+        }
+    }
+
+    static EventResponse occurrence(CalendarEventRow master, long epochDay, ReminderShift shift) {
+        EventResponse dto = new EventResponse();
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+
+        dto.setId(master.id());
+        dto.setTitle(master.title());
+        dto.setDescription(master.description());
+
+        if (shift != null) {
+            dto.setReminderTime(shift.at(epochDay));
+        }
+
+        dto.setEventDate(date);
+        dto.setRecurrenceType(master.recurrenceType());
+        dto.setRecurrenceInterval(master.recurrenceInterval());
+        dto.setRecurrenceEndDate(master.recurrenceEndDate());
+        dto.setRecurrenceRule(master.recurrenceRule());
+
+        dto.setParentEventId(master.id());
+        dto.setException(false);
+        dto.setOriginalDate(date);
+
+        return dto;
+    }
+
+    // same gap to the event date as the master's reminder. not validated: past occurrences
+    // are only displayed, moves validate through EventService.updateReminderTime
+    static LocalDateTime shiftReminder(LocalDateTime reminder, LocalDate eventDate, LocalDate newEventDate) {
+        return ReminderShift.of(reminder, eventDate).at(newEventDate.toEpochDay());
+    }
+
+    private static long[] sortedEpochDays(Collection<LocalDate> dates) {
+        if (dates == null || dates.isEmpty()) {
+            return NO_DAYS;
+        }
+        long[] days = new long[dates.size()];
+        int i = 0;
+        for (LocalDate d : dates) {
+            days[i++] = d.toEpochDay();
+        }
+        Arrays.sort(days);
+        return days;
+    }
+
+    /** a master's reminder as days before the event plus time of day, computed once per master */
+    record ReminderShift(long daysBefore, LocalTime time) {
+
+        static ReminderShift of(LocalDateTime reminder, LocalDate eventDate) {
+            if (reminder == null) {
+                return null;
+            }
+            return new ReminderShift(DAYS.between(reminder.toLocalDate(), eventDate), reminder.toLocalTime());
+        }
+
+        LocalDateTime at(long eventEpochDay) {
+            return LocalDateTime.of(LocalDate.ofEpochDay(eventEpochDay - daysBefore), time);
+        }
+    }
+}
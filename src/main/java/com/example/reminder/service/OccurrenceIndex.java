@@ -0,0 +1,365 @@
+package com.example.reminder.service;
+
+import com.example.reminder.dto.EventResponse;
+import com.example.reminder.dto.OccurrenceRow;
+import com.example.reminder.model.Event;
+import com.example.reminder.model.EventOccurrence;
+import com.example.reminder.model.OccurrenceHorizon;
+import com.example.reminder.model.User;
+import com.example.reminder.repository.EventOccurrenceRepository;
+import com.example.reminder.repository.EventRepository;
+import com.example.reminder.repository.OccurrenceHorizonRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Materialised calendar occurrences (event_occurrences) for [fromDate, untilDate] of the horizon row.
+ *
+ * Every event mutation re-materialises the event, or the whole series when it belongs to one,
+ * after the surrounding transaction commits, for the range in the horizon row (read under a shared
+ * lock, so it cannot move while the refresh writes). Calendar reads are served from these rows, so
+ * a refresh bumps the user's data version again when it commits: a read between the mutation and
+ * the refresh is cached and tagged with the version the mutation set. A scheduled job builds the index once and then
+ * keeps untilDate horizon-days ahead; one node at a time does so, under a lease on the horizon row.
+ * Ranges outside the horizon fall back to expansion.
+ *
+ * Occurrences the scheduler created for a series are not materialised while the series root exists,
+ * the root's rows already cover them (see OccurrenceExpansion).
+ */
+@Slf4j
+@Service
+public class OccurrenceIndex {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final EventOccurrenceRepository occurrenceRepo;
+    private final OccurrenceHorizonRepository horizonRepo;
+    private final EventRepository eventRepo;
+    private final ReminderClaimService claimService;
+    private final DataVersions dataVersions;
+    // REQUIRES_NEW: refreshes run from afterCommit, where the finished transaction is still bound
+    private final TransactionTemplate txTemplate;
+    private final Counter refreshFailures;
+
+    @Value("${app.occurrences.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.occurrences.lookback-days:365}")
+    private long lookbackDays;
+
+    @Value("${app.occurrences.horizon-days:730}")
+    private long horizonDays;
+
+    @Value("${app.occurrences.lease-minutes:10}")
+    private long leaseMinutes;
+
+    // complete range as last read from the horizon row, null until the first build has finished
+    private volatile LocalDate from;
+    private volatile LocalDate until;
+
+    public OccurrenceIndex(EventOccurrenceRepository occurrenceRepo, OccurrenceHorizonRepository horizonRepo,
+                           EventRepository eventRepo, ReminderClaimService claimService,
+                           DataVersions dataVersions, PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.occurrenceRepo = occurrenceRepo;
+        this.horizonRepo = horizonRepo;
+        this.eventRepo = eventRepo;
+        this.claimService = claimService;
+        this.dataVersions = dataVersions;
+        this.txTemplate = new TransactionTemplate(transactionManager);
+        this.txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.refreshFailures = Counter.builder("reminder.occurrences.refresh.failures")
+                .description("Occurrence index refreshes that failed, the affected rows stay stale until repaired")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHorizon() {
+        if (!enabled) {
+            return;
+        }
+        horizonRepo.findById(OccurrenceHorizon.ID).ifPresent(this::load);
+    }
+
+    public boolean covers(LocalDate start, LocalDate end) {
+        LocalDate f = from;
+        LocalDate u = until;
+        return f != null && u != null && !start.isBefore(f) && !end.isAfter(u);
+    }
+
+    public List<EventResponse> find(Long userId, LocalDate start, LocalDate end) {
+        List<OccurrenceRow> rows = occurrenceRepo.findRows(userId, start, end);
+        List<EventResponse> result = new ArrayList<>(rows.size());
+        rows.forEach(row -> result.add(row.toResponse()));
+        return result;
+    }
+
+    public List<LocalDate> findBusyDates(Long userId, LocalDate start, LocalDate end) {
+        return occurrenceRepo.findBusyDates(userId, start, end);
+    }
+
+    /** after an event row was saved or deleted: re-materialise it, or its series */
+    public void refresh(Event e) {
+        Long eventId = e.getId();
+        Long seriesId = (e.isException() && e.getParentEventId() != null) ? e.getParentEventId() : null;
+        afterCommit(List.of(e.getUser().getId()), range -> {
+            if (seriesId != null) {
+                rebuildSeries(seriesId, range);
+                return;
+            }
+            occurrenceRepo.deleteByEventId(eventId);
+            eventRepo.findById(eventId).ifPresent(saved -> write(List.of(saved), range));
+        });
+    }
+
+    /** one refresh for a batch, e.g. the next occurrences of a reminder page */
+    public void refreshAll(Collection<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Long> ids = events.stream().map(Event::getId).toList();
+        List<Long> userIds = events.stream().map(e -> e.getUser().getId()).distinct().toList();
+        afterCommit(userIds, range -> {
+            occurrenceRepo.deleteByEventIds(ids);
+            write(eventRepo.findAllById(ids), range);
+        });
+    }
+
+    /** after exceptions of a master of the user were changed in bulk */
+    public void refreshSeries(Long userId, Long masterId) {
+        afterCommit(List.of(userId), range -> rebuildSeries(masterId, range));
+    }
+
+    /** re-materialise every event of a user, e.g. after a verification found differences, and bump the data version */
+    public int repairUser(User user) {
+        Integer rows = txTemplate.execute(status -> {
+            OccurrenceHorizon horizon = horizonRepo.findForRefresh().orElse(null);
+            if (horizon == null || horizon.getWriteUntil() == null) {
+                return 0;
+            }
+            occurrenceRepo.deleteByUserId(user.getId());
+            List<Event> events = visible(eventRepo.findByUser(user));
+            List<EventOccurrence> occurrences = OccurrenceExpansion.materialise(events, exceptionDatesOf(events),
+                    horizon.getFromDate(), horizon.getWriteUntil());
+            occurrenceRepo.saveAll(occurrences);
+            dataVersions.bump(user.getId());
+            return occurrences.size();
+        });
+        return (rows != null) ? rows : 0;
+    }
+
+    /**
+     * builds the index on first run, then keeps it horizon-days ahead. every node tries,
+     * the one holding the lease does the work and the others pick up its result
+     */
+    @Scheduled(initialDelayString = "${app.occurrences.initial-delay-ms:30000}",
+            fixedDelayString = "${app.occurrences.extend-ms:3600000}")
+    public void extendHorizon() {
+        if (!enabled) {
+            return;
+        }
+        String node = claimService.getNodeId();
+        createHorizonIfMissing();
+        if (!renewLease(node)) {
+            horizonRepo.findById(OccurrenceHorizon.ID).ifPresent(this::load);
+            return;
+        }
+        try {
+            extend(node);
+        } finally {
+            horizonRepo.releaseLease(node);
+        }
+    }
+
+    private void extend(String node) {
+        OccurrenceHorizon horizon = horizonRepo.findById(OccurrenceHorizon.ID).orElseThrow();
+        load(horizon);
+
+        LocalDate today = LocalDate.now();
+        LocalDate target = today.plusDays(horizonDays);
+        LocalDate rangeFrom;
+        LocalDate start;
+        if (horizon.getUntilDate() == null) {
+            // first build, or one that did not finish: rows are replaced, so it simply starts over
+            start = today.minusDays(lookbackDays);
+            rangeFrom = start;
+        } else {
+            if (!target.isAfter(horizon.getUntilDate())) {
+                return;
+            }
+            start = horizon.getUntilDate().plusDays(1);
+            rangeFrom = horizon.getFromDate();
+        }
+        // from here on refreshes write the new days too, events already built are then kept current
+        if (horizonRepo.startExtension(node, rangeFrom, target) == 0) {
+            return;
+        }
+
+        long began = System.nanoTime();
+        long afterId = 0;
+        long rows = 0;
+        while (true) {
+            if (!renewLease(node)) {
+                log.warn("Lost the occurrence horizon lease after {} rows, another node takes over", rows);
+                return;
+            }
+            long cursor = afterId;
+            // {rows written, last event id}, null when there are no more events
+            long[] page = txTemplate.execute(status -> {
+                List<Event> events = eventRepo.findPageAfterId(cursor, PageRequest.of(0, PAGE_SIZE));
+                if (events.isEmpty()) {
+                    return null;
+                }
+                // rows a concurrent refresh may already have written for these days
+                occurrenceRepo.deleteByEventIdsBetween(events.stream().map(Event::getId).toList(), start, target);
+                List<Event> shown = visible(events);
+                List<EventOccurrence> occurrences = OccurrenceExpansion.materialise(shown, exceptionDatesOf(shown),
+                        start, target);
+                occurrenceRepo.saveAll(occurrences);
+                return new long[]{occurrences.size(), events.get(events.size() - 1).getId()};
+            });
+            if (page == null) {
+                break;
+            }
+            rows += page[0];
+            afterId = page[1];
+        }
+
+        if (horizonRepo.finishExtension(node, target) == 0) {
+            return;
+        }
+        from = rangeFrom;
+        until = target;
+        log.info("Occurrence index extended to {}..{} ({} rows) in {} ms", rangeFrom, target, rows,
+                (System.nanoTime() - began) / 1_000_000);
+    }
+
+    private boolean renewLease(String node) {
+        LocalDateTime now = LocalDateTime.now();
+        return horizonRepo.claimLease(node, now, now.plusMinutes(leaseMinutes)) > 0;
+    }
+
+    private void createHorizonIfMissing() {
+        if (horizonRepo.existsById(OccurrenceHorizon.ID)) {
+            return;
+        }
+        try {
+            horizonRepo.saveAndFlush(new OccurrenceHorizon());
+        } catch (DataIntegrityViolationException ex) {
+            // another node created it first
+        }
+    }
+
+    private void load(OccurrenceHorizon horizon) {
+        from = horizon.getFromDate();
+        until = horizon.getUntilDate();
+    }
+
+    // masters are rebuilt with their exceptions, everything else written on its own date
+    private void write(List<Event> events, Range range) {
+        Set<Long> series = new LinkedHashSet<>();
+        List<Event> singles = new ArrayList<>();
+        for (Event e : visible(events)) {
+            if (e.isException() && e.getParentEventId() != null) {
+                series.add(e.getParentEventId());
+            } else if (OccurrenceExpansion.isMaster(e)) {
+                series.add(e.getId());
+            } else {
+                singles.add(e);
+            }
+        }
+        series.forEach(id -> rebuildSeries(id, range));
+        occurrenceRepo.saveAll(OccurrenceExpansion.materialise(singles, Map.of(), range.from(), range.until()));
+    }
+
+    private void rebuildSeries(Long masterId, Range range) {
+        occurrenceRepo.deleteBySeriesId(masterId);
+        List<Event> events = new ArrayList<>(eventRepo.findExceptionsOfMasters(List.of(masterId)));
+        eventRepo.findById(masterId).filter(OccurrenceExpansion::isMaster).ifPresent(events::add);
+        events = visible(events);
+        occurrenceRepo.saveAll(OccurrenceExpansion.materialise(events, exceptionDatesOf(events),
+                range.from(), range.until()));
+    }
+
+    // without the occurrences the scheduler created for series whose root still exists
+    private List<Event> visible(List<Event> events) {
+        Set<Long> rootIds = new HashSet<>();
+        for (Event e : events) {
+            if (e.getSeriesRootId() != null) {
+                rootIds.add(e.getSeriesRootId());
+            }
+        }
+        if (rootIds.isEmpty()) {
+            return events;
+        }
+        Set<Long> existing = new HashSet<>(eventRepo.findExistingIds(rootIds));
+        return events.stream().filter(e -> !OccurrenceExpansion.isHiddenCarrier(e, existing)).toList();
+    }
+
+    private void afterCommit(Collection<Long> userIds, Consumer<Range> refresh) {
+        if (!enabled) {
+            return;
+        }
+        Runnable guarded = () -> {
+            try {
+                txTemplate.executeWithoutResult(status -> {
+                    OccurrenceHorizon horizon = horizonRepo.findForRefresh().orElse(null);
+                    // nothing is built yet, the build picks the change up
+                    if (horizon != null && horizon.getWriteUntil() != null) {
+                        refresh.accept(new Range(horizon.getFromDate(), horizon.getWriteUntil()));
+                        dataVersions.bump(userIds);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                // the mutation itself is committed, a failed refresh must not fail the request
+                refreshFailures.increment();
+                log.error("Occurrence index refresh failed", ex);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+
+    private Map<Long, List<LocalDate>> exceptionDatesOf(List<Event> events) {
+        List<Long> masterIds = events.stream().filter(OccurrenceExpansion::isMaster).map(Event::getId).toList();
+        if (masterIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<LocalDate>> dates = new HashMap<>();
+        for (Event ex : eventRepo.findExceptionsOfMasters(masterIds)) {
+            if (ex.getOriginalDate() != null) {
+                dates.computeIfAbsent(ex.getParentEventId(), k -> new ArrayList<>()).add(ex.getOriginalDate());
+            }
+        }
+        return dates;
+    }
+
+    // dates refreshes write, read from the horizon row in the refreshing transaction
+    private record Range(LocalDate from, LocalDate until) {
+    }
+}
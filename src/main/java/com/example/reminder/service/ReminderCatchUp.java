@@ -0,0 +1,106 @@
+package com.example.reminder.service;
+
+import com.example.reminder.repository.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catch-up after downtime: reminders due within the fresh window are always dispatched first
+ * and in full, older ones (the backlog) are drained at no more than max-per-second.
+ * Reminders older than stale-after-minutes are handled by the stale policy.
+ */
+@Component
+public class ReminderCatchUp {
+
+    public enum StalePolicy {
+        SEND,   // send as usual
+        SKIP,   // mark sent without an email
+        DIGEST  // one "missed reminders" email per user
+    }
+
+    private final EventRepository repo;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter staleSkipped;
+    private final Counter staleDigested;
+
+    @Value("${app.reminder.catchup.fresh-seconds:60}")
+    private long freshSeconds;
+
+    @Value("${app.reminder.catchup.max-per-second:50}")
+    private double maxPerSecond;
+
+    // unused budget carries over for at most this long
+    @Value("${app.reminder.catchup.burst-seconds:5}")
+    private long burstSeconds;
+
+    @Value("${app.reminder.catchup.stale-after-minutes:60}")
+    private long staleAfterMinutes;
+
+    @Value("${app.reminder.catchup.stale-policy:SEND}")
+    private StalePolicy stalePolicy;
+
+    // only touched by the scheduler thread running checkReminders
+    private LocalDateTime lastDrain;
+
+    public ReminderCatchUp(EventRepository repo, MeterRegistry registry) {
+        this.repo = repo;
+
+        Gauge.builder("reminder.catchup.backlog", backlog, AtomicLong::get)
+                .description("Due reminders older than the fresh window, waiting to be drained")
+                .register(registry);
+        Gauge.builder("reminder.catchup.eta.seconds", this, c -> c.backlog.get() / c.maxPerSecond)
+                .description("Time to drain the backlog at max-per-second")
+                .register(registry);
+        this.staleSkipped = Counter.builder("reminder.catchup.stale")
+                .tag("policy", "skip")
+                .register(registry);
+        this.staleDigested = Counter.builder("reminder.catchup.stale")
+                .tag("policy", "digest")
+                .register(registry);
+    }
+
+    /** reminders due at or after this are fresh */
+    public LocalDateTime freshFrom(LocalDateTime now) {
+        return now.minusSeconds(freshSeconds);
+    }
+
+    /** reminders due before this are stale, null when stale reminders are sent as usual */
+    public LocalDateTime staleBefore(LocalDateTime now) {
+        return (stalePolicy == StalePolicy.SEND) ? null : now.minusMinutes(staleAfterMinutes);
+    }
+
+    public StalePolicy getStalePolicy() {
+        return stalePolicy;
+    }
+
+    /** count the claimable backlog (leased rows are in flight on some node), exposed as reminder.catchup.backlog */
+    public long refreshBacklog(LocalDateTime now) {
+        long size = repo.countClaimableRemindersBefore(freshFrom(now), now);
+        backlog.set(size);
+        return size;
+    }
+
+    /** backlog reminders that may be claimed on this tick, max-per-second times the time since the last drain */
+    public int drainBudget(LocalDateTime now) {
+        long elapsedMs = (lastDrain == null)
+                ? 1000
+                : Math.min(Duration.between(lastDrain, now).toMillis(), burstSeconds * 1000);
+        lastDrain = now;
+        return (int) Math.max(1, maxPerSecond * elapsedMs / 1000);
+    }
+
+    public void recordStale(StalePolicy policy, int count) {
+        if (policy == StalePolicy.SKIP) {
+            staleSkipped.increment(count);
+        } else if (policy == StalePolicy.DIGEST) {
+            staleDigested.increment(count);
+        }
+    }
+}
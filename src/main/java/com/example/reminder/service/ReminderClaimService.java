@@ -0,0 +1,112 @@
+package com.example.reminder.service;
+
+import com.example.reminder.repository.EventRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Leases due reminders to this node so several replicas can run the scheduler
+ * against one database without sending the same reminder twice.
+ * A lease that is not released (node crashed while dispatching) expires and the
+ * reminder becomes claimable again.
+ */
+@Slf4j
+@Service
+public class ReminderClaimService {
+
+    private final EventRepository repo;
+    private final String nodeId;
+
+    @Value("${app.reminder.claim.lease-seconds:120}")
+    private long leaseSeconds;
+
+    public ReminderClaimService(EventRepository repo,
+                                @Value("${app.reminder.node-id:}") String nodeId) {
+        this.repo = repo;
+        this.nodeId = (nodeId == null || nodeId.isBlank()) ? defaultNodeId() : nodeId;
+        log.info("Reminder scheduler node id: {}", this.nodeId);
+    }
+
+    /**
+     * lease the next keyset page of reminders due up to dueUntil after cursor, ordered by
+     * (reminderTime, id), in its own short transaction.
+     * rows locked by other nodes are skipped, so concurrent nodes get disjoint batches.
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public ClaimedPage claimDueReminders(LocalDateTime now, LocalDateTime dueUntil, Cursor cursor, int limit) {
+        List<Object[]> rows = repo.lockDueReminders(now, dueUntil, cursor.reminderTime(), cursor.id(), limit);
+        if (rows.isEmpty()) {
+            return new ClaimedPage(List.of(), null);
+        }
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add(((Number) row[0]).longValue());
+        }
+        repo.leaseReminders(ids, nodeId, leaseExpiry(now));
+
+        Object[] last = rows.get(rows.size() - 1);
+        return new ClaimedPage(ids, new Cursor(toLocalDateTime(last[1]), ids.get(ids.size() - 1)));
+    }
+
+    /**
+     * lease a digest user's other pending reminders due up to until, in the caller's
+     * transaction, so they are sent with the user's digest instead of on their own.
+     */
+    @Transactional
+    public List<Long> claimPendingRemindersOfUser(Long userId, LocalDateTime now, LocalDateTime until) {
+        List<Long> ids = repo.lockPendingReminderIdsOfUser(userId, now, until);
+
+        if (!ids.isEmpty()) {
+            repo.leaseReminders(ids, nodeId, leaseExpiry(now));
+        }
+        return ids;
+    }
+
+    /** first time a reminder leased at now can be claimed again, by any node */
+    public LocalDateTime reclaimableAt(LocalDateTime now) {
+        // claims take leases with lease_expiry < now
+        return leaseExpiry(now).plusSeconds(1);
+    }
+
+    private LocalDateTime leaseExpiry(LocalDateTime now) {
+        return now.plusSeconds(leaseSeconds);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /** leased reminder ids of one page and the position after its last reminder */
+    public record ClaimedPage(List<Long> ids, Cursor end) {
+    }
+
+    /** position after the last reminder of a page */
+    public record Cursor(LocalDateTime reminderTime, long id) {
+        public static final Cursor START = new Cursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+    }
+
+    // native DATETIME columns may come back as Timestamp depending on the driver/dialect
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return (value instanceof Timestamp ts) ? ts.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
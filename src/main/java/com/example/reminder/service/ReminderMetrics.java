@@ -0,0 +1,104 @@
+package com.example.reminder.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Scheduler and mail pipeline metrics, scraped from /actuator/prometheus.
+ *
+ * reminder.lateness is a histogram with SLO buckets, e.g. "p99 lateness < 5s" is
+ *   histogram_quantile(0.99, sum by (le) (rate(reminder_lateness_seconds_bucket[5m]))) < 5
+ * or, as a ratio, the le="5.0" bucket over reminder_lateness_seconds_count.
+ */
+@Component
+public class ReminderMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer tick;
+    private final DistributionSummary batchSize;
+    private final Timer lateness;
+    private final Timer render;
+    private final Timer smtpSuccess;
+    private final Timer smtpFailure;
+    private final Timer nextOccurrences;
+
+    public ReminderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+
+        this.tick = Timer.builder("reminder.scheduler.tick")
+                .description("Duration of a scheduler pass that claimed and dispatched due reminders")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("reminder.scheduler.batch.size")
+                .description("Reminders per claimed page")
+                .baseUnit("reminders")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.lateness = Timer.builder("reminder.lateness")
+                .description("SMTP acceptance time minus reminderTime")
+                .serviceLevelObjectives(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(30),
+                        Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(30))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(100))
+                .maximumExpectedValue(Duration.ofHours(2))
+                .register(registry);
+        this.render = Timer.builder("reminder.email.render")
+                .description("Rendering a reminder email body")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.smtpSuccess = smtpTimer("success");
+        this.smtpFailure = smtpTimer("failure");
+        this.nextOccurrences = Timer.builder("reminder.recurrence.next")
+                .description("Creating the next occurrences of a dispatched page (batched insert)")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Timer smtpTimer(String outcome) {
+        return Timer.builder("reminder.smtp.send")
+                .description("SMTP send latency over a pooled connection")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordTick(long nanos) {
+        tick.record(Duration.ofNanos(nanos));
+    }
+
+    public void recordBatchSize(int reminders) {
+        batchSize.record(reminders);
+    }
+
+    public void recordLateness(Duration late) {
+        // reminders pulled forward into a digest are sent early, count them as on time
+        lateness.record(late.isNegative() ? Duration.ZERO : late);
+    }
+
+    public <T> T timeRender(Supplier<T> renderer) {
+        return render.record(renderer);
+    }
+
+    public void recordSmtpSend(long nanos, boolean success) {
+        (success ? smtpSuccess : smtpFailure).record(Duration.ofNanos(nanos));
+    }
+
+    public void timeNextOccurrences(Runnable creation) {
+        nextOccurrences.record(creation);
+    }
+
+    /** stage: queue (writing the outbox row) or send (SMTP) */
+    public void recordFailure(String stage) {
+        Counter.builder("reminder.email.failures")
+                .description("Reminder emails that failed to be queued or sent")
+                .tag("stage", stage)
+                .register(registry)
+                .increment();
+    }
+}
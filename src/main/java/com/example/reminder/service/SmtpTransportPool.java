@@ -0,0 +1,158 @@
+package com.example.reminder.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps up to N authenticated SMTP connections open and sends many messages per connection,
+ * instead of a connect + TLS handshake + auth per email as JavaMailSender.send() does.
+ * A connection is recycled after max-messages sends or max-idle seconds without use.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+
+    private final JavaMailSender mailSender;
+    private final int size;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledTransport> idle;
+
+    @Value("${app.mail.pool.max-messages:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${app.mail.pool.max-idle-seconds:30}")
+    private long maxIdleSeconds;
+
+    public SmtpTransportPool(JavaMailSender mailSender, @Value("${app.mail.pool.size:4}") int size) {
+        this.mailSender = mailSender;
+        this.size = size;
+        this.permits = new Semaphore(size);
+        this.idle = new ArrayBlockingQueue<>(size);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /** borrow a connection, blocks while all N connections are in use. close() gives it back. */
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        PooledTransport pooled = idle.poll();
+        return (pooled != null) ? pooled : new PooledTransport();
+    }
+
+    /** send a single message over a pooled connection */
+    public void send(MimeMessage message) throws MessagingException {
+        try (PooledTransport transport = borrow()) {
+            transport.send(message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.pool.reap-ms:15000}")
+    public void closeIdleConnections() {
+        List<PooledTransport> kept = new ArrayList<>();
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            if (pooled.isStale()) {
+                pooled.disconnect();
+            } else {
+                kept.add(pooled);
+            }
+        }
+        // offer never fails, at most size transports exist
+        kept.forEach(idle::offer);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            pooled.disconnect();
+        }
+    }
+
+    public final class PooledTransport implements AutoCloseable {
+        private Transport transport;
+        private int sent;
+        private long lastUsed = System.currentTimeMillis();
+
+        public void send(MimeMessage message) throws MessagingException {
+            if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+                // not a JavaMail backed sender (e.g. a test double), nothing to pool
+                mailSender.send(message);
+                return;
+            }
+            if (isStale() || transport == null || !transport.isConnected()) {
+                disconnect();
+                connect(impl);
+            }
+            try {
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+                sent++;
+                lastUsed = System.currentTimeMillis();
+            } catch (SendFailedException e) {
+                // rejected recipient, the connection itself is fine
+                lastUsed = System.currentTimeMillis();
+                throw e;
+            } catch (MessagingException e) {
+                disconnect();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (isStale()) {
+                disconnect();
+            }
+            idle.offer(this);
+            permits.release();
+        }
+
+        boolean isStale() {
+            return sent >= maxMessagesPerConnection
+                    || System.currentTimeMillis() - lastUsed > maxIdleSeconds * 1000;
+        }
+
+        private void connect(JavaMailSenderImpl impl) throws MessagingException {
+            transport = impl.getSession().getTransport(impl.getProtocol() != null ? impl.getProtocol() : "smtp");
+            transport.connect(impl.getHost(), impl.getPort(), impl.getUsername(), impl.getPassword());
+            sent = 0;
+            lastUsed = System.currentTimeMillis();
+        }
+
+        void disconnect() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    log.debug("Error closing SMTP connection: {}", e.getMessage());
+                }
+                transport = null;
+            }
+            sent = 0;
+            lastUsed = System.currentTimeMillis();
+        }
+    }
+}
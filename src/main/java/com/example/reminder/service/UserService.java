@@ -2,10 +2,12 @@ package com.example.reminder.service;
 import com.example.reminder.dto.EmailVerificationResult;
 import com.example.reminder.dto.RegisterRequest;
 import com.example.reminder.exception.BadRequestException;
+import com.example.reminder.model.EmailKind;
 import com.example.reminder.model.Role;
 import com.example.reminder.model.User;
 import com.example.reminder.repository.RoleRepository;
 import com.example.reminder.repository.UserRepository;
+import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
@@ -24,16 +26,18 @@ public class UserService {
     private final RoleRepository roleRepo;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final EmailOutboxService emailOutbox;
 
     @Value("${app.frontend.base-url}")
     private String frontendBaseUrl;
 
     public UserService(UserRepository userRepo, RoleRepository roleRepo,@Lazy PasswordEncoder passwordEncoder,
-                        EmailService emailService) {
+                        EmailService emailService, EmailOutboxService emailOutbox) {
         this.userRepo = userRepo;
         this.roleRepo = roleRepo;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.emailOutbox = emailOutbox;
     }
 
     /*
@@ -93,6 +97,13 @@ public class UserService {
         userRepo.save(user);
     }
 
+    public void changeReminderDigest(User user, boolean enabled) {
+        user.setReminderDigest(enabled);
+        userRepo.save(user);
+    }
+
+    // token and verification mail are committed together
+    @Transactional
     public void changeEmail(User user,String oldEmail, String newEmail) {
 
         if (!(oldEmail.equalsIgnoreCase(user.getEmail())) ) {
@@ -116,17 +127,14 @@ public class UserService {
 
         String link = frontendBaseUrl+"/login?verify="+token;
 
-        try {
-            String html = emailService.buildVerificationEmailHtml(link,newEmail);
-            emailService.sendReminderHtml(
-                    newEmail,
-                    "Reminder App: Verify your New Email." ,
-                    html
-            );
+        String html = emailService.buildVerificationEmailHtml(link,newEmail);
+        emailOutbox.enqueue(
+                newEmail,
+                "Reminder App: Verify your New Email." ,
+                html,
+                EmailKind.VERIFY_EMAIL
+        );
 
-        } catch (Exception ex) {
-            log.error("Failed to send Email for changed Email {}", newEmail, ex);
-        }
         userRepo.save(user);
     }
 
@@ -153,6 +161,7 @@ public class UserService {
         );
     }
 
+    @Transactional
     public void requestPasswordReset(String email) {
         User user = userRepo.findByEmail(email)
                 .orElseThrow(()->new BadRequestException("Invalid Email address."));
@@ -166,17 +175,12 @@ public class UserService {
         String link = frontendBaseUrl+"/reset-password?token="+token;
         String html = emailService.buildResetPasswordHtml(link);
 
-        try {
-
-            emailService.sendReminderHtml(
-                    user.getEmail(),
-                    "Reminder App: Reset your Password." ,
-                    html
-            );
-
-        } catch (Exception ex) {
-            log.error("Failed to send Email for reset password for user {}", user.getEmail(), ex);
-        }
+        emailOutbox.enqueue(
+                user.getEmail(),
+                "Reminder App: Reset your Password." ,
+                html,
+                EmailKind.RESET_PASSWORD
+        );
 
         userRepo.save(user);
 
@@ -0,0 +1,135 @@
+package com.example.reminder.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal precompiled HTML template.
+ *
+ * The source is parsed once into literal segments and {{name}} placeholders. Rendering
+ * appends the literals and the HTML-escaped values into a reused, pre-sized StringBuilder,
+ * so a render costs one pass over the output and a single String copy.
+ *
+ * Values are passed positionally, in the order of the parameter names given to compile();
+ * a name may appear any number of times in the source.
+ */
+public final class HtmlTemplate {
+
+    // rendered mails are a few KB, don't keep huge buffers alive per thread
+    private static final int MAX_CACHED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private final String[] literals;   // literals[i] is written before placeholder i
+    private final int[] slots;         // parameter index of placeholder i
+    private final int parameterCount;
+    private final int estimatedLength;
+
+    private HtmlTemplate(String[] literals, int[] slots, int parameterCount) {
+        this.literals = literals;
+        this.slots = slots;
+        this.parameterCount = parameterCount;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length + slots.length * 32;
+    }
+
+    public static HtmlTemplate compile(String source, String... parameterNames) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at " + open);
+            }
+            String name = source.substring(open + 2, close).trim();
+            int slot = indexOf(parameterNames, name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder: " + name);
+            }
+            literals.add(source.substring(pos, open));
+            slots.add(slot);
+            pos = close + 2;
+        }
+        literals.add(source.substring(pos));
+
+        return new HtmlTemplate(
+                literals.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                parameterNames.length);
+    }
+
+    public String render(Object... values) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(estimatedLength);
+
+        appendTo(out, values);
+
+        String result = out.toString();
+        if (out.capacity() > MAX_CACHED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    /** render into an existing builder, used to compose a mail from several templates */
+    public void appendTo(StringBuilder out, Object... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException("Expected " + parameterCount + " values, got " + values.length);
+        }
+
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            Object value = values[slots[i]];
+            if (value != null) {
+                escape(value.toString(), out);
+            }
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    public int getEstimatedLength() {
+        return estimatedLength;
+    }
+
+    /** HTML-escape value into out in a single pass, copying unescaped runs in bulk */
+    public static void escape(String value, StringBuilder out) {
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, length);
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
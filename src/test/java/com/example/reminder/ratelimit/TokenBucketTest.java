@@ -0,0 +1,69 @@
+package com.example.reminder.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenPacesAtRate() {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucket bucket = new TokenBucket(10, 5, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire());
+        }
+        long wait = bucket.tryAcquire();
+        assertTrue(wait > 0 && wait <= SECOND / 10, "wait " + wait);
+        assertEquals(0, bucket.available());
+
+        clock.addAndGet(wait);
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+    }
+
+    @Test
+    void refundAndRefill() {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucket bucket = new TokenBucket(2, 2, clock::get);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+
+        bucket.refund();
+        assertEquals(1, bucket.available());
+        assertEquals(0, bucket.tryAcquire());
+
+        clock.addAndGet(SECOND);
+        assertTrue(bucket.isFull());
+        assertEquals(2, bucket.available());
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedBurst() throws InterruptedException {
+        // rate is negligible over the test, so only the burst can be handed out
+        TokenBucket bucket = new TokenBucket(0.001, 1000);
+        AtomicLong granted = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire() == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, granted.get());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.reminder.recurrence;
+
+import com.example.reminder.model.RecurrenceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccurrenceCursorTest {
+
+    @Test
+    void matchesRecurrenceMath() {
+        Random random = new Random(11);
+        RecurrenceType[] types = {RecurrenceType.DAILY, RecurrenceType.WEEKLY,
+                RecurrenceType.MONTHLY, RecurrenceType.YEARLY};
+
+        for (int i = 0; i < 5_000; i++) {
+            RecurrenceType type = types[random.nextInt(types.length)];
+            int interval = 1 + random.nextInt(4);
+            LocalDate start = LocalDate.of(1990, 1, 1).plusDays(random.nextInt(15000));
+            LocalDate from = start.plusDays(random.nextInt(4000) - 100);
+
+            OccurrenceCursor cursor = OccurrenceCursor.of(start, type, interval, null);
+            cursor.skipTo(from.toEpochDay());
+
+            long k = RecurrenceMath.firstIndexOnOrAfter(start, type, interval, from);
+            for (int n = 0; n < 5; n++, k++) {
+                assertEquals(RecurrenceMath.occurrence(start, type, interval, k).toEpochDay(), cursor.nextEpochDay(),
+                        type + " every " + interval + " from " + start + " visible from " + from);
+            }
+        }
+    }
+
+    @Test
+    void followsRuleWhenSet() {
+        LocalDate start = LocalDate.of(2025, 1, 31);
+        OccurrenceCursor cursor = OccurrenceCursor.of(start, RecurrenceType.MONTHLY, 1, "FREQ=MONTHLY;COUNT=3;BYDAY=-1FR");
+
+        assertEquals(LocalDate.of(2025, 1, 31).toEpochDay(), cursor.nextEpochDay());
+        assertEquals(LocalDate.of(2025, 2, 28).toEpochDay(), cursor.nextEpochDay());
+        assertEquals(LocalDate.of(2025, 3, 28).toEpochDay(), cursor.nextEpochDay());
+        assertEquals(OccurrenceCursor.END, cursor.nextEpochDay());
+    }
+
+    @Test
+    void nonRecurringSeriesIsJustItsStart() {
+        LocalDate start = LocalDate.of(2025, 6, 1);
+
+        OccurrenceCursor cursor = OccurrenceCursor.of(start, RecurrenceType.NONE, null, null);
+        assertEquals(start.toEpochDay(), cursor.nextEpochDay());
+        assertEquals(OccurrenceCursor.END, cursor.nextEpochDay());
+
+        OccurrenceCursor skipped = OccurrenceCursor.of(start, RecurrenceType.NONE, null, null);
+        skipped.skipTo(start.plusDays(1).toEpochDay());
+        assertEquals(OccurrenceCursor.END, skipped.nextEpochDay());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.reminder.recurrence;
+
+import com.example.reminder.model.RecurrenceType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the first occurrence visible from a date for series started years ago: the closed form,
+ * whose cost does not depend on the series' age, against stepping occurrence by occurrence from the start.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="RecurrenceMathBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecurrenceMathBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+
+    @Param({"DAILY", "MONTHLY"})
+    public RecurrenceType type;
+
+    @Param({"1", "10", "40"})
+    public int ageYears;
+
+    private LocalDate start;
+
+    @Setup
+    public void setUp() {
+        // a month end, so the monthly series exercises clamping
+        start = FROM.minusYears(ageYears).withDayOfMonth(1).minusDays(1);
+    }
+
+    @Benchmark
+    public LocalDate closedForm() {
+        return RecurrenceMath.firstOnOrAfter(start, type, 1, FROM);
+    }
+
+    @Benchmark
+    public LocalDate stepping() {
+        long k = 0;
+        LocalDate d = start;
+        while (d.isBefore(FROM)) {
+            d = RecurrenceMath.occurrence(start, type, 1, ++k);
+        }
+        return d;
+    }
+}
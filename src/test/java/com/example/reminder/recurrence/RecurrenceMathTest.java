@@ -0,0 +1,126 @@
+package com.example.reminder.recurrence;
+
+import com.example.reminder.model.RecurrenceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceMathTest {
+
+    @Test
+    void matchesJavaTimeArithmeticForAllTypes() {
+        Random random = new Random(7);
+        RecurrenceType[] types = {RecurrenceType.DAILY, RecurrenceType.WEEKLY,
+                RecurrenceType.MONTHLY, RecurrenceType.YEARLY};
+
+        for (int i = 0; i < 20_000; i++) {
+            RecurrenceType type = types[random.nextInt(types.length)];
+            int interval = 1 + random.nextInt(4);
+            LocalDate start = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(9000));
+            LocalDate from = start.plusDays(random.nextInt(3000) - 100);
+
+            // reference: occurrence k straight from java.time, found by scanning k upwards
+            long k = 0;
+            while (plus(start, type, k * interval).isBefore(from)) {
+                k++;
+            }
+            assertEquals(plus(start, type, k * interval), RecurrenceMath.occurrence(start, type, interval, k));
+            assertEquals(k, RecurrenceMath.firstIndexOnOrAfter(start, type, interval, from),
+                    type + " every " + interval + " from " + start + " visible from " + from);
+        }
+    }
+
+    @Test
+    void monthEndIsClampedWithoutDrift() {
+        LocalDate start = LocalDate.of(2024, 1, 31);
+
+        assertEquals(LocalDate.of(2024, 2, 29), RecurrenceMath.occurrence(start, RecurrenceType.MONTHLY, 1, 1));
+        assertEquals(LocalDate.of(2024, 3, 31), RecurrenceMath.occurrence(start, RecurrenceType.MONTHLY, 1, 2));
+        assertEquals(LocalDate.of(2024, 4, 30),
+                RecurrenceMath.firstOnOrAfter(start, RecurrenceType.MONTHLY, 1, LocalDate.of(2024, 4, 1)));
+        assertEquals(LocalDate.of(2024, 5, 31),
+                RecurrenceMath.firstOnOrAfter(start, RecurrenceType.MONTHLY, 1, LocalDate.of(2024, 5, 1)));
+
+        LocalDate leapDay = LocalDate.of(2024, 2, 29);
+        assertEquals(LocalDate.of(2025, 2, 28),
+                RecurrenceMath.firstOnOrAfter(leapDay, RecurrenceType.YEARLY, 1, LocalDate.of(2024, 3, 1)));
+        assertEquals(LocalDate.of(2028, 2, 29),
+                RecurrenceMath.firstOnOrAfter(leapDay, RecurrenceType.YEARLY, 1, LocalDate.of(2028, 1, 1)));
+    }
+
+    @Test
+    void chainedMonthlySeriesKeepsTheMonthEnd() {
+        LocalDate start = LocalDate.of(2024, 1, 31);
+
+        List<LocalDate> anchored = chain(start, 4,
+                d -> RecurrenceMath.nextAfter(start, RecurrenceType.MONTHLY, 1, d));
+        // what chaining the previous occurrence with addInterval produced
+        List<LocalDate> addInterval = chain(start, 4, d -> d.plusMonths(1));
+
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31),
+                LocalDate.of(2024, 4, 30), LocalDate.of(2024, 5, 31)), anchored);
+        assertEquals(List.of(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 29),
+                LocalDate.of(2024, 4, 29), LocalDate.of(2024, 5, 29)), addInterval);
+        assertNotEquals(addInterval, anchored);
+    }
+
+    @Test
+    void chainedSeriesMatchesTheOldWalkAwayFromMonthEnds() {
+        LocalDate start = LocalDate.of(2024, 1, 15);
+
+        for (RecurrenceType type : List.of(RecurrenceType.DAILY, RecurrenceType.WEEKLY,
+                RecurrenceType.MONTHLY, RecurrenceType.YEARLY)) {
+            assertEquals(chain(start, 30, d -> plus(d, type, 2)),
+                    chain(start, 30, d -> RecurrenceMath.nextAfter(start, type, 2, d)), type.toString());
+        }
+    }
+
+    @Test
+    void chainedLeapDaySeriesReturnsToFebruary29() {
+        LocalDate start = LocalDate.of(2024, 2, 29);
+
+        List<LocalDate> anchored = chain(start, 4,
+                d -> RecurrenceMath.nextAfter(start, RecurrenceType.YEARLY, 1, d));
+        List<LocalDate> addInterval = chain(start, 4, d -> d.plusYears(1));
+
+        assertEquals(LocalDate.of(2028, 2, 29), anchored.get(3));
+        assertEquals(LocalDate.of(2028, 2, 28), addInterval.get(3));
+    }
+
+    @Test
+    void firstVisibleOccurrenceOfAnOldSeriesIsFoundDirectly() {
+        LocalDate start = LocalDate.of(1990, 6, 15);
+        LocalDate from = LocalDate.of(2026, 3, 1);
+
+        assertEquals(from, RecurrenceMath.firstOnOrAfter(start, RecurrenceType.DAILY, 1, from));
+        assertEquals(LocalDate.of(2026, 3, 6), RecurrenceMath.firstOnOrAfter(start, RecurrenceType.WEEKLY, 1, from));
+        assertEquals(LocalDate.of(2026, 3, 15), RecurrenceMath.firstOnOrAfter(start, RecurrenceType.MONTHLY, 1, from));
+        assertEquals(LocalDate.of(2026, 6, 15), RecurrenceMath.firstOnOrAfter(start, RecurrenceType.YEARLY, 1, from));
+    }
+
+    private static List<LocalDate> chain(LocalDate start, int count, UnaryOperator<LocalDate> next) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate d = start;
+        for (int i = 0; i < count; i++) {
+            d = next.apply(d);
+            dates.add(d);
+        }
+        return dates;
+    }
+
+    private static LocalDate plus(LocalDate d, RecurrenceType type, long units) {
+        return switch (type) {
+            case DAILY -> d.plusDays(units);
+            case WEEKLY -> d.plusWeeks(units);
+            case MONTHLY -> d.plusMonths(units);
+            case YEARLY -> d.plusYears(units);
+            default -> d;
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.reminder.recurrence;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Occurrences per second the rule cursor produces for complex RRULEs: walking ten years from
+ * the start, and the calendar case of a series started in 1990 shown for one year in 2026.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="RecurrenceRuleBenchmark"
+ *
+ * The occurrences row of each benchmark is the rate, the benchmark row itself counts whole walks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecurrenceRuleBenchmark {
+
+    private static final LocalDate START = LocalDate.of(1990, 1, 1);
+    private static final LocalDate VISIBLE_FROM = LocalDate.of(2026, 1, 1);
+
+    @Param({"FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1",
+            "FREQ=MONTHLY;INTERVAL=2;BYDAY=1SU,-1SU",
+            "FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH",
+            "FREQ=YEARLY;BYDAY=20MO",
+            "FREQ=MONTHLY;BYMONTHDAY=1,15,-1"})
+    public String rule;
+
+    private RecurrenceRule compiled;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Occurrences {
+        public long occurrences;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            occurrences = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        compiled = RecurrenceRule.compile(rule);
+    }
+
+    @Benchmark
+    public long tenYears(Occurrences counter) {
+        return walk(compiled.cursor(START), START.plusYears(10).toEpochDay(), counter);
+    }
+
+    @Benchmark
+    public long oneYearOfAnOldSeries(Occurrences counter) {
+        RecurrenceRule.Cursor cursor = compiled.cursor(START);
+        cursor.skipTo(VISIBLE_FROM);
+        return walk(cursor, VISIBLE_FROM.plusYears(1).toEpochDay(), counter);
+    }
+
+    private static long walk(RecurrenceRule.Cursor cursor, long endEpochDay, Occurrences counter) {
+        long sum = 0;
+        for (long day = cursor.nextEpochDay(); day != RecurrenceRule.Cursor.END && day < endEpochDay;
+             day = cursor.nextEpochDay()) {
+            sum += day;
+            counter.occurrences++;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.reminder.recurrence;
+
+import com.example.reminder.model.RecurrenceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+
+    private static List<LocalDate> all(String rule, String start) {
+        RecurrenceRule.Cursor cursor = RecurrenceRule.compile(rule).cursor(LocalDate.parse(start));
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate d = cursor.next(); d != null && dates.size() < 100; d = cursor.next()) {
+            dates.add(d);
+        }
+        return dates;
+    }
+
+    private static List<LocalDate> dates(String... dates) {
+        return Arrays.stream(dates).map(LocalDate::parse).toList();
+    }
+
+    // examples from RFC 5545, section 3.8.5.3
+    @Test
+    void rfcExamples() {
+        assertEquals(dates("1997-09-05", "1997-10-03", "1997-11-07", "1997-12-05", "1998-01-02",
+                        "1998-02-06", "1998-03-06", "1998-04-03", "1998-05-01", "1998-06-05"),
+                all("FREQ=MONTHLY;COUNT=10;BYDAY=1FR", "1997-09-05"));
+
+        assertEquals(dates("1997-09-04", "1997-10-07", "1997-11-06"),
+                all("FREQ=MONTHLY;BYDAY=TU,WE,TH;BYSETPOS=3;COUNT=3", "1997-09-04"));
+
+        assertEquals(dates("1997-09-02", "1997-09-04", "1997-09-16", "1997-09-18",
+                        "1997-09-30", "1997-10-02", "1997-10-14", "1997-10-16"),
+                all("FREQ=WEEKLY;INTERVAL=2;COUNT=8;BYDAY=TU,TH", "1997-09-02"));
+
+        assertEquals(dates("1997-09-07", "1997-09-28", "1997-11-02", "1997-11-30", "1998-01-04",
+                        "1998-01-25", "1998-03-01", "1998-03-29", "1998-05-03", "1998-05-31"),
+                all("FREQ=MONTHLY;INTERVAL=2;COUNT=10;BYDAY=1SU,-1SU", "1997-09-07"));
+
+        assertEquals(dates("1997-09-28", "1997-10-29", "1997-11-28", "1997-12-29", "1998-01-29", "1998-02-26"),
+                all("FREQ=MONTHLY;BYMONTHDAY=-3;COUNT=6", "1997-09-28"));
+
+        assertEquals(dates("1997-05-19", "1998-05-18", "1999-05-17"),
+                all("FREQ=YEARLY;BYDAY=20MO;COUNT=3", "1997-05-19"));
+
+        assertEquals(dates("1997-09-29", "1997-10-30", "1997-11-27", "1997-12-30",
+                        "1998-01-29", "1998-02-26", "1998-03-30"),
+                all("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-2;COUNT=7", "1997-09-29"));
+    }
+
+    @Test
+    void untilIsInclusiveAndMissingDaysAreSkipped() {
+        assertEquals(dates("2025-01-31", "2025-03-31", "2025-05-31"),
+                all("RRULE:FREQ=MONTHLY;UNTIL=20250531T000000Z", "2025-01-31"));
+        assertEquals(dates("2024-02-29", "2028-02-29"),
+                all("FREQ=YEARLY;UNTIL=20310101", "2024-02-29"));
+    }
+
+    @Test
+    void skipToMatchesWalkingTheSeries() {
+        String[] rules = {"FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1", "FREQ=WEEKLY;INTERVAL=3;BYDAY=MO,FR",
+                "FREQ=DAILY;INTERVAL=5", "FREQ=YEARLY;INTERVAL=2;BYMONTHDAY=1,-1"};
+        LocalDate start = LocalDate.of(2001, 3, 14);
+
+        for (String rule : rules) {
+            for (int offset = 0; offset < 4000; offset += 37) {
+                LocalDate from = start.plusDays(offset);
+
+                RecurrenceRule.Cursor walked = RecurrenceRule.compile(rule).cursor(start);
+                LocalDate expected = walked.next();
+                while (expected.isBefore(from)) {
+                    expected = walked.next();
+                }
+
+                RecurrenceRule.Cursor skipped = RecurrenceRule.compile(rule).cursor(start);
+                skipped.skipTo(from);
+                assertEquals(expected, skipped.next(), rule + " from " + from);
+            }
+        }
+    }
+
+    @Test
+    void nextAfterAndLastOccurrence() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=MONTHLY;COUNT=3;BYDAY=-1FR");
+        LocalDate start = LocalDate.of(2025, 1, 31);
+
+        assertEquals(LocalDate.of(2025, 2, 28), rule.nextAfter(start, start));
+        assertEquals(LocalDate.of(2025, 3, 28), rule.lastOccurrence(start));
+        assertNull(rule.nextAfter(start, LocalDate.of(2025, 3, 28)));
+        assertNull(RecurrenceRule.compile("FREQ=DAILY").lastOccurrence(start));
+    }
+
+    @Test
+    void startDateIsTheFirstOccurrenceEvenIfTheRuleSkipsIt() {
+        // 2025-01-30 is a Thursday, RFC 5545 counts DTSTART towards COUNT anyway
+        assertEquals(dates("2025-01-30", "2025-01-31", "2025-02-28"),
+                all("FREQ=MONTHLY;COUNT=3;BYDAY=-1FR", "2025-01-30"));
+        assertEquals(dates("2025-01-30", "2025-01-31", "2025-02-28", "2025-03-28"),
+                all("FREQ=MONTHLY;BYDAY=-1FR;UNTIL=20250331", "2025-01-30"));
+
+        RecurrenceRule.Cursor cursor = RecurrenceRule.compile("FREQ=MONTHLY;BYDAY=-1FR")
+                .cursor(LocalDate.of(2025, 1, 30));
+        cursor.skipTo(LocalDate.of(2025, 1, 31));
+        assertEquals(LocalDate.of(2025, 1, 31), cursor.next());
+    }
+
+    @Test
+    void countIsAnchoredAtTheSeriesStart() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=WEEKLY;COUNT=3");
+        LocalDate start = LocalDate.of(2025, 6, 2);
+
+        // stepping from each occurrence must not restart COUNT
+        assertEquals(LocalDate.of(2025, 6, 9), rule.nextAfter(start, start));
+        assertEquals(LocalDate.of(2025, 6, 16), rule.nextAfter(start, LocalDate.of(2025, 6, 9)));
+        assertNull(rule.nextAfter(start, LocalDate.of(2025, 6, 16)));
+    }
+
+    @Test
+    void splitSeriesKeepsTheRemainingCount() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=DAILY;INTERVAL=2;COUNT=5");
+        LocalDate start = LocalDate.of(2025, 6, 1);
+
+        assertEquals(2, rule.countBefore(start, LocalDate.of(2025, 6, 5)));
+        RecurrenceRule rest = rule.withCount(3);
+        assertEquals("FREQ=DAILY;INTERVAL=2;COUNT=3", rest.toString());
+        assertEquals(dates("2025-06-06", "2025-06-08", "2025-06-10"), all(rest.toString(), "2025-06-06"));
+        assertThrows(IllegalStateException.class, () -> RecurrenceRule.compile("FREQ=DAILY").withCount(2));
+    }
+
+    @Test
+    void parsesOnceAndExposesFrequency() {
+        RecurrenceRule rule = RecurrenceRule.compile("freq=weekly;interval=2;byday=mo");
+
+        assertSame(rule, RecurrenceRule.compile("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO"));
+        assertEquals(RecurrenceType.WEEKLY, rule.getFrequency());
+        assertEquals(2, rule.getInterval());
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO", rule.toString());
+    }
+
+    @Test
+    void rejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("INTERVAL=2"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=HOURLY"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=1MO"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY;BYMONTHDAY=3"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=2;UNTIL=20300101"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=0"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYHOUR=9"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.reminder.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void firesWithinOneTickAfterDeadline() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, 5, START);
+        Random random = new Random(42);
+        long[] deadlines = new long[10_000];
+        for (int i = 0; i < deadlines.length; i++) {
+            // up to ~3 days ahead so every level is used
+            deadlines[i] = START + (long) (random.nextDouble() * 3 * 24 * 3600 * 1000L);
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        long[] firedAt = new long[deadlines.length];
+        for (long now = START; wheel.size() > 0; now += TICK) {
+            long t = now;
+            wheel.advance(now, id -> firedAt[(int) id] = t);
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            long lateness = firedAt[i] - deadlines[i];
+            assertTrue(lateness >= 0, "fired early: " + i);
+            assertTrue(lateness < TICK, "fired too late: " + i);
+        }
+    }
+
+    @Test
+    void overdueEntriesFireOnNextAdvance() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, 5, START);
+        wheel.schedule(1, START - 60_000);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(START, fired::add);
+
+        assertEquals(List.of(1L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduleAndCancel() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, 5, START);
+        wheel.schedule(1, START + 5 * TICK);
+        wheel.schedule(2, START + 5 * TICK);
+        wheel.schedule(1, START + 7200 * TICK);
+        assertTrue(wheel.cancel(2));
+        assertFalse(wheel.cancel(2));
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(START + 10 * TICK, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(START + 7200 * TICK, fired::add);
+        assertEquals(List.of(1L), fired);
+    }
+
+    // timings and memory per entry are measured by TimingWheelBenchmark
+    @Test
+    void oneMillionReminders() {
+        int count = 1_000_000;
+        long window = 3600 * TICK;
+
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, 5, START);
+        for (int i = 0; i < count; i++) {
+            wheel.schedule(i, START + (i * 7919L) % window);
+        }
+        assertEquals(count, wheel.size());
+
+        long[] maxLateness = {0};
+        int[] fired = {0};
+        for (long now = START; now <= START + window; now += TICK) {
+            long t = now;
+            wheel.advance(now, id -> {
+                long deadline = START + (id * 7919L) % window;
+                assertTrue(t >= deadline, "fired before its deadline");
+                maxLateness[0] = Math.max(maxLateness[0], t - deadline);
+                fired[0]++;
+            });
+        }
+
+        assertEquals(count, fired[0]);
+        assertEquals(0, wheel.size());
+        assertTrue(maxLateness[0] < TICK);
+    }
+}
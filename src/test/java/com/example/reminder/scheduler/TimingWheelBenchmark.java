@@ -0,0 +1,109 @@
+package com.example.reminder.scheduler;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The reminder wheel with one million scheduled reminders: scheduling them, expiring them tick by
+ * tick through a one-hour window, and the cost of a single tick while a day's worth stays pending.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="TimingWheelBenchmark -prof gc"
+ *
+ * schedule and expire report per entry (gc.alloc.rate.norm of schedule is allocated bytes per entry,
+ * table growth included), the memory retained per entry is printed during setup.
+ * expire fails if an entry fires a tick or more after its deadline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+    private static final long HOUR = 3600 * TICK;
+    private static final long DAY = 24 * HOUR;
+
+    // spread over the window without clustering, 7919 is prime
+    private static long deadline(long id, long window) {
+        return START + (id * 7919L) % window;
+    }
+
+    private static HierarchicalTimingWheel filled(long window) {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, 5, START);
+        for (int i = 0; i < ENTRIES; i++) {
+            wheel.schedule(i, deadline(i, window));
+        }
+        return wheel;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public HierarchicalTimingWheel schedule() {
+        return filled(HOUR);
+    }
+
+    @State(Scope.Thread)
+    public static class Expiring {
+        HierarchicalTimingWheel wheel;
+
+        @Setup(Level.Trial)
+        public void measureRetained() {
+            System.gc();
+            Runtime rt = Runtime.getRuntime();
+            long before = rt.totalMemory() - rt.freeMemory();
+            wheel = filled(HOUR);
+            System.gc();
+            long after = rt.totalMemory() - rt.freeMemory();
+            System.out.println("\nretained bytes per entry: " + (after - before) / ENTRIES);
+        }
+
+        @Setup(Level.Invocation)
+        public void fill() {
+            wheel = filled(HOUR);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public long expire(Expiring state) {
+        long[] maxLateness = {0};
+        for (long now = START; now <= START + HOUR; now += TICK) {
+            long t = now;
+            state.wheel.advance(now, id -> maxLateness[0] = Math.max(maxLateness[0], t - deadline(id, HOUR)));
+        }
+        if (state.wheel.size() != 0 || maxLateness[0] >= TICK) {
+            throw new IllegalStateException("fired late or not at all, max lateness " + maxLateness[0] + " ms");
+        }
+        return maxLateness[0];
+    }
+
+    // steady state: every fired entry is scheduled again a day later, so a million stay pending
+    @State(Scope.Thread)
+    public static class Pending {
+        HierarchicalTimingWheel wheel;
+        long now;
+
+        @Setup(Level.Iteration)
+        public void fill() {
+            wheel = filled(DAY);
+            now = START;
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int tick(Pending state) {
+        long now = state.now += TICK;
+        HierarchicalTimingWheel wheel = state.wheel;
+        int[] fired = {0};
+        wheel.advance(now, id -> {
+            wheel.schedule(id, now + DAY);
+            fired[0]++;
+        });
+        return fired[0];
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.reminder.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substring search over 5M synthetic events: trigram candidates verified against the folded text,
+ * against scanning every event's folded text with contains (what LIKE on an accent- and
+ * case-insensitive column does, minus the I/O). The scan gets its texts folded up front.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="TrigramIndexBenchmark"
+ *
+ * The heap retained by the index alone is printed during setup. A query the index cannot narrow to
+ * 5000 candidates returns null, the service then runs the plain LIKE query instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TrigramIndexBenchmark {
+
+    private static final String[] WORDS = {"dentist", "team", "meeting", "birthday", "Zahnarzt", "Café",
+            "review", "gym", "call", "Übergabe", "dinner", "flight", "invoice", "standup", "yoga", "Geburtstag"};
+    private static final int MAX_CANDIDATES = 5000;
+
+    @Param("5000000")
+    public int events;
+
+    // rare: one id; selective: a word pair and a number; common: a word pair alone, past the limit
+    @Param({"4711231", "cafe rev 123", "gym call"})
+    public String query;
+
+    private TrigramIndex index;
+    private String[] folded;
+    private String foldedQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.gc();
+        Runtime rt = Runtime.getRuntime();
+        long before = rt.totalMemory() - rt.freeMemory();
+        index = new TrigramIndex();
+        forEachEvent((id, title, description) -> index.add(id, title, description));
+        System.gc();
+        long after = rt.totalMemory() - rt.freeMemory();
+        System.out.println("\nindex retained: " + (after - before) / (1024 * 1024) + " MB, "
+                + index.trigramCount() + " trigrams");
+
+        folded = new String[events + 1];
+        forEachEvent((id, title, description) ->
+                folded[id] = TrigramIndex.fold(title) + "\n" + TrigramIndex.fold(description));
+        foldedQuery = TrigramIndex.fold(query);
+    }
+
+    private void forEachEvent(EventText sink) {
+        Random random = new Random(11);
+        for (int id = 1; id <= events; id++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            String description = "ref " + (id * 7919L % 10_000_000) + " " + WORDS[random.nextInt(WORDS.length)];
+            sink.accept(id, title, description);
+        }
+    }
+
+    private interface EventText {
+        void accept(int id, String title, String description);
+    }
+
+    @Benchmark
+    public int indexed() {
+        int[] candidates = index.candidates(query, MAX_CANDIDATES);
+        if (candidates == null) {
+            return -1;
+        }
+        int matches = 0;
+        for (int id : candidates) {
+            if (folded[id].contains(foldedQuery)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int scan() {
+        int matches = 0;
+        for (int id = 1; id < folded.length; id++) {
+            if (folded[id].contains(foldedQuery)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
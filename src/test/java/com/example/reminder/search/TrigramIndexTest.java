@@ -0,0 +1,78 @@
+package com.example.reminder.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    @Test
+    void candidatesContainEverySubstringMatch() {
+        Random random = new Random(3);
+        String[] words = {"dentist", "team", "meeting", "birthday", "Zahnarzt", "Café", "review", "gym", "call"};
+        List<String> texts = new ArrayList<>();
+        TrigramIndex index = new TrigramIndex();
+
+        for (int id = 1; id <= 2_000; id++) {
+            String text = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+            texts.add(text);
+            index.add(id, text, null);
+        }
+
+        for (String query : new String[]{"meet", "ting bir", "zahn", "cafe", "view 1", "142", "gym call"}) {
+            int[] candidates = index.candidates(query, Integer.MAX_VALUE);
+            for (int id = 1; id <= texts.size(); id++) {
+                String folded = TrigramIndex.fold(texts.get(id - 1));
+                if (folded.contains(TrigramIndex.fold(query))) {
+                    assertTrue(Arrays.binarySearch(candidates, id) >= 0, query + " misses " + id);
+                }
+            }
+        }
+    }
+
+    @Test
+    void narrowsToDocumentsWithAllTrigrams() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "Dentist appointment", "bring x-ray");
+        index.add(2, "Team meeting", null);
+        index.add(3, "Dental floss", "buy");
+
+        assertArrayEquals(new int[]{1}, index.candidates("dentist", 10));
+        assertArrayEquals(new int[]{1, 3}, index.candidates("dent", 10));
+        assertArrayEquals(new int[]{1}, index.candidates("x-ray", 10));
+        assertArrayEquals(new int[0], index.candidates("yoga", 10));
+    }
+
+    @Test
+    void removeDropsPostingsAndEditsOnlyLeaveCandidates() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(7, "Yoga class", null);
+        index.add(7, "Pilates class", null);
+
+        // the old title stays a candidate until removed or rebuilt, callers verify with LIKE
+        assertArrayEquals(new int[]{7}, index.candidates("yoga", 10));
+        assertArrayEquals(new int[]{7}, index.candidates("pilates", 10));
+
+        index.remove(7, "Yoga class", null);
+        assertArrayEquals(new int[0], index.candidates("yoga", 10));
+    }
+
+    @Test
+    void declinesQueriesItCannotNarrow() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "abc", null);
+        index.add(2, "abcd", null);
+
+        assertNull(index.candidates("ab", 10));
+        assertNull(index.candidates("a%c", 10));
+        assertNull(index.candidates("a_c", 10));
+        assertNull(index.candidates("abc", 1));
+        assertEquals("strasse cafe", TrigramIndex.fold("Straße CAFÉ".toLowerCase(Locale.ROOT)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.reminder.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCursorTest {
+
+    @Test
+    void roundTripsEverySortValue() {
+        EventCursor[] cursors = {
+                new EventCursor("id", true, 42, "42"),
+                new EventCursor("eventDate", false, 7, "2025-10-18"),
+                new EventCursor("reminderTime", true, 9, "2025-10-18T09:30"),
+                new EventCursor("title", false, 3, "Team\nsync = 100% | done"),
+                new EventCursor("title", true, 5, ""),
+                new EventCursor("reminderTime", false, 11, null)
+        };
+        for (EventCursor cursor : cursors) {
+            String encoded = cursor.encode();
+            assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+            assertEquals(cursor, EventCursor.decode(encoded));
+        }
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> EventCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> EventCursor.decode("aWQKQQ"));
+        assertThrows(IllegalArgumentException.class,
+                () -> EventCursor.decode(new EventCursor("id", true, 1, "1").encode().substring(2)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.reminder.service;
+
+import com.example.reminder.dto.CalendarEventRow;
+import com.example.reminder.model.RecurrenceType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Expansion of 10k recurring masters over a one-year range: the epoch-day walk used by the calendar
+ * and the occurrence index, against the LocalDate walk with a HashSet of exception dates it replaced.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="OccurrenceExpansionBenchmark -prof gc"
+ *
+ * gc.alloc.rate.norm is per operation (all masters), divide by the occurrences per operation
+ * printed during setup for bytes per occurrence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OccurrenceExpansionBenchmark {
+
+    private static final LocalDate RANGE_START = LocalDate.of(2026, 1, 1);
+    private static final LocalDate RANGE_END = LocalDate.of(2026, 12, 31);
+
+    @Param("10000")
+    public int masters;
+
+    private CalendarEventRow[] rows;
+    private List<List<LocalDate>> exceptionDates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        RecurrenceType[] types = {RecurrenceType.DAILY, RecurrenceType.WEEKLY,
+                RecurrenceType.MONTHLY, RecurrenceType.YEARLY};
+        rows = new CalendarEventRow[masters];
+        exceptionDates = new ArrayList<>(masters);
+        for (int i = 0; i < masters; i++) {
+            RecurrenceType type = types[random.nextInt(types.length)];
+            int interval = 1 + random.nextInt(3);
+            // series started up to five years before the range
+            LocalDate start = RANGE_START.minusDays(random.nextInt(5 * 365));
+            LocalDateTime reminder = start.minusDays(1).atTime(9, 0);
+            rows[i] = new CalendarEventRow((long) i, "Event " + i, null, start, reminder,
+                    type, interval, null, null, false, null, null);
+
+            List<LocalDate> exceptions = new ArrayList<>();
+            for (int n = random.nextInt(4); n > 0; n--) {
+                exceptions.add(RANGE_START.plusDays(random.nextInt(365)));
+            }
+            exceptionDates.add(exceptions);
+        }
+        long[] count = {0};
+        epochDayWalk(day -> count[0]++);
+        System.out.println("\noccurrences per operation: " + count[0]);
+    }
+
+    @Benchmark
+    public void epochDays(Blackhole bh) {
+        epochDayWalk(bh::consume);
+    }
+
+    @Benchmark
+    public void responses(Blackhole bh) {
+        for (int i = 0; i < rows.length; i++) {
+            bh.consume(OccurrenceExpansion.expand(rows[i], RANGE_START, RANGE_END, exceptionDates.get(i)));
+        }
+    }
+
+    // the walk before the epoch-day cursor: step from the start date, one LocalDate per step
+    @Benchmark
+    public void localDateWalk(Blackhole bh) {
+        for (int i = 0; i < rows.length; i++) {
+            CalendarEventRow master = rows[i];
+            Set<LocalDate> skip = new HashSet<>(exceptionDates.get(i));
+            int interval = master.recurrenceInterval();
+            LocalDate cursor = master.eventDate();
+            while (cursor.isBefore(RANGE_START)) {
+                cursor = addInterval(cursor, master.recurrenceType(), interval);
+            }
+            while (!cursor.isAfter(RANGE_END)) {
+                if (!skip.contains(cursor)) {
+                    bh.consume(cursor);
+                }
+                cursor = addInterval(cursor, master.recurrenceType(), interval);
+            }
+        }
+    }
+
+    private void epochDayWalk(LongConsumer sink) {
+        for (int i = 0; i < rows.length; i++) {
+            OccurrenceExpansion.forEachDay(rows[i], RANGE_START, RANGE_END, exceptionDates.get(i), sink);
+        }
+    }
+
+    private static LocalDate addInterval(LocalDate d, RecurrenceType type, int interval) {
+        return switch (type) {
+            case DAILY -> d.plusDays(interval);
+            case WEEKLY -> d.plusWeeks(interval);
+            case MONTHLY -> d.plusMonths(interval);
+            case YEARLY -> d.plusYears(interval);
+            default -> d;
+        };
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.reminder.service;
+
+import com.example.reminder.dto.CalendarEventRow;
+import com.example.reminder.dto.EventResponse;
+import com.example.reminder.model.Event;
+import com.example.reminder.model.EventOccurrence;
+import com.example.reminder.model.RecurrenceType;
+import com.example.reminder.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccurrenceExpansionTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 1);
+    private static final LocalDate END = LocalDate.of(2026, 6, 30);
+
+    private final User user = new User(7L);
+    private long nextId = 1;
+
+    @Test
+    void movedOutException() {
+        Event master = master(LocalDate.of(2026, 1, 5), RecurrenceType.WEEKLY, 1);
+        // the occurrence of 2026-04-06 moved to after the range, the one of 2026-05-04 within it
+        Event movedOut = exception(master, LocalDate.of(2026, 4, 6), LocalDate.of(2026, 8, 1));
+        Event movedIn = exception(master, LocalDate.of(2026, 5, 4), LocalDate.of(2026, 5, 7));
+        // and one moved into the range from before it
+        Event movedFromBefore = exception(master, LocalDate.of(2026, 2, 2), LocalDate.of(2026, 3, 3));
+
+        assertMatchesPreChangeWalk(List.of(master, movedOut, movedIn, movedFromBefore));
+        Set<String> shown = keys(indexed(List.of(master, movedOut, movedIn, movedFromBefore)));
+        assertFalse(shown.contains(master.getId() + "|2026-04-06|2026-04-05T09:00"));
+        assertFalse(shown.stream().anyMatch(k -> k.startsWith(movedOut.getId() + "|")));
+        assertTrue(shown.contains(movedIn.getId() + "|2026-05-07|" + movedIn.getReminderTime()));
+        assertTrue(shown.contains(movedFromBefore.getId() + "|2026-03-03|" + movedFromBefore.getReminderTime()));
+    }
+
+    @Test
+    void thisAndFutureSplit() {
+        // what EventService.moveThisAndFuture leaves behind for a split on 2026-04-15
+        LocalDate split = LocalDate.of(2026, 4, 15);
+        Event old = master(LocalDate.of(2026, 1, 1), RecurrenceType.DAILY, 2);
+        old.setRecurrenceEndDate(split.minusDays(1));
+        Event skip = exception(old, split, null);
+        Event future = master(split.plusDays(3), RecurrenceType.DAILY, 2);
+        future.setParentEventId(old.getId());
+        Event edited = exception(future, split.plusDays(7), split.plusDays(8));
+
+        List<Event> events = List.of(old, skip, future, edited);
+        assertMatchesPreChangeWalk(events);
+        Set<String> shown = dates(indexed(events));
+        assertTrue(shown.contains("2026-04-13"));
+        assertFalse(shown.contains("2026-04-15"));
+        assertTrue(shown.contains("2026-04-18"));
+        assertFalse(shown.contains("2026-04-25"));
+        assertTrue(shown.contains("2026-04-26"));
+    }
+
+    @Test
+    void monthlySeriesWithSinglesAndEndDate() {
+        Event monthly = master(LocalDate.of(2025, 11, 10), RecurrenceType.MONTHLY, 1);
+        monthly.setRecurrenceEndDate(LocalDate.of(2026, 5, 10));
+        Event yearly = master(LocalDate.of(2020, 4, 20), RecurrenceType.YEARLY, 2);
+        Event late = master(LocalDate.of(2026, 8, 1), RecurrenceType.DAILY, 1);
+        Event single = single(LocalDate.of(2026, 4, 1));
+        Event singleOutside = single(LocalDate.of(2026, 7, 1));
+
+        assertMatchesPreChangeWalk(List.of(monthly, yearly, late, single, singleOutside));
+    }
+
+    @Test
+    void schedulerCreatedOccurrencesHideBehindTheirRoot() {
+        Event root = master(LocalDate.of(2026, 2, 2), RecurrenceType.WEEKLY, 1);
+        Event carrier = master(LocalDate.of(2026, 2, 9), RecurrenceType.WEEKLY, 1);
+        carrier.setSeriesRootId(root.getId());
+        Event next = master(LocalDate.of(2026, 2, 16), RecurrenceType.WEEKLY, 1);
+        next.setSeriesRootId(root.getId());
+
+        Set<Long> existing = Set.of(root.getId(), carrier.getId(), next.getId());
+        assertTrue(OccurrenceExpansion.isHiddenCarrier(carrier, existing));
+        assertFalse(OccurrenceExpansion.isHiddenCarrier(root, existing));
+        List<Event> visible = visible(List.of(root, carrier, next), existing);
+        assertEquals(List.of(root), visible);
+        assertMatchesPreChangeWalk(visible);
+
+        // root deleted and the newest re-rooted: it shows the series from its own date on
+        next.setSeriesRootId(null);
+        carrier.setSeriesRootId(next.getId());
+        visible = visible(List.of(carrier, next), Set.of(carrier.getId(), next.getId()));
+        assertEquals(List.of(next), visible);
+        assertMatchesPreChangeWalk(visible);
+
+        // orphaned, e.g. a root deleted before re-rooting existed: shown on its own
+        assertFalse(OccurrenceExpansion.isHiddenCarrier(carrier, Set.of(carrier.getId())));
+    }
+
+    // index rows and calendar responses both equal the walk the calendar did before the epoch-day cursor
+    private void assertMatchesPreChangeWalk(List<Event> events) {
+        Set<String> expected = preChangeWalk(events);
+        assertEquals(expected, keys(indexed(events)), "index");
+
+        List<CalendarEventRow> rows = events.stream().map(CalendarEventRow::of).toList();
+        Set<String> calendar = new TreeSet<>();
+        for (EventResponse r : OccurrenceExpansion.expandRows(rows, START, END)) {
+            assertTrue(calendar.add(r.getId() + "|" + r.getEventDate() + "|" + r.getReminderTime()), "duplicate");
+        }
+        assertEquals(expected, calendar, "calendar");
+
+        Set<LocalDate> busy = new TreeSet<>();
+        OccurrenceExpansion.forEachBusyDay(rows, START, END, day -> busy.add(LocalDate.ofEpochDay(day)));
+        Set<LocalDate> expectedBusy = new TreeSet<>();
+        expected.forEach(k -> expectedBusy.add(LocalDate.parse(k.split("\\|")[1])));
+        assertEquals(expectedBusy, busy, "busy days");
+    }
+
+    private List<EventOccurrence> indexed(List<Event> events) {
+        Map<Long, List<LocalDate>> exceptionDates = new HashMap<>();
+        for (Event e : events) {
+            if (e.isException() && e.getOriginalDate() != null) {
+                exceptionDates.computeIfAbsent(e.getParentEventId(), k -> new ArrayList<>()).add(e.getOriginalDate());
+            }
+        }
+        List<EventOccurrence> rows = OccurrenceExpansion.materialise(events, exceptionDates, START, END);
+        for (EventOccurrence row : rows) {
+            assertEquals(user.getId(), row.getUserId());
+        }
+        return rows;
+    }
+
+    private static Set<String> preChangeWalk(List<Event> events) {
+        Set<String> keys = new TreeSet<>();
+        for (Event e : events) {
+            if (e.isException() || e.getRecurrenceType() == RecurrenceType.NONE) {
+                LocalDate date = e.getEventDate();
+                if (date != null && !date.isBefore(START) && !date.isAfter(END)) {
+                    keys.add(e.getId() + "|" + date + "|" + e.getReminderTime());
+                }
+                continue;
+            }
+            Set<LocalDate> skip = new HashSet<>();
+            for (Event ex : events) {
+                if (ex.isException() && e.getId().equals(ex.getParentEventId())) {
+                    skip.add(ex.getOriginalDate());
+                }
+            }
+            LocalDate last = (e.getRecurrenceEndDate() != null && e.getRecurrenceEndDate().isBefore(END))
+                    ? e.getRecurrenceEndDate() : END;
+            LocalDate cursor = e.getEventDate();
+            while (!cursor.isAfter(last)) {
+                if (!cursor.isBefore(START) && !skip.contains(cursor)) {
+                    LocalDateTime reminder = e.getReminderTime().plusDays(DAYS.between(e.getEventDate(), cursor));
+                    keys.add(e.getId() + "|" + cursor + "|" + reminder);
+                }
+                cursor = addInterval(cursor, e.getRecurrenceType(), e.getRecurrenceInterval());
+            }
+        }
+        return keys;
+    }
+
+    private static LocalDate addInterval(LocalDate d, RecurrenceType type, int interval) {
+        return switch (type) {
+            case DAILY -> d.plusDays(interval);
+            case WEEKLY -> d.plusWeeks(interval);
+            case MONTHLY -> d.plusMonths(interval);
+            case YEARLY -> d.plusYears(interval);
+            default -> throw new IllegalArgumentException(type.name());
+        };
+    }
+
+    private static List<Event> visible(List<Event> events, Set<Long> existing) {
+        return events.stream().filter(e -> !OccurrenceExpansion.isHiddenCarrier(e, existing)).toList();
+    }
+
+    private static Set<String> keys(List<EventOccurrence> rows) {
+        Set<String> keys = new TreeSet<>();
+        for (EventOccurrence row : rows) {
+            assertTrue(keys.add(row.getEventId() + "|" + row.getOccurrenceDate() + "|" + row.getReminderTime()),
+                    "duplicate");
+        }
+        return keys;
+    }
+
+    private static Set<String> dates(List<EventOccurrence> rows) {
+        Set<String> dates = new TreeSet<>();
+        rows.forEach(row -> dates.add(row.getOccurrenceDate().toString()));
+        return dates;
+    }
+
+    private Event single(LocalDate date) {
+        Event e = event(date);
+        e.setRecurrenceType(RecurrenceType.NONE);
+        return e;
+    }
+
+    private Event master(LocalDate date, RecurrenceType type, int interval) {
+        Event e = event(date);
+        e.setRecurrenceType(type);
+        e.setRecurrenceInterval(interval);
+        return e;
+    }
+
+    // eventDate null for the skip exception of a split
+    private Event exception(Event master, LocalDate originalDate, LocalDate eventDate) {
+        Event e = event(eventDate);
+        e.setRecurrenceType(RecurrenceType.NONE);
+        e.setException(true);
+        e.setParentEventId(master.getId());
+        e.setOriginalDate(originalDate);
+        return e;
+    }
+
+    private Event event(LocalDate date) {
+        Event e = new Event();
+        e.setId(nextId++);
+        e.setUser(user);
+        e.setTitle("Event " + e.getId());
+        e.setEventDate(date);
+        e.setReminderTime(date != null ? date.minusDays(1).atTime(9, 0) : null);
+        return e;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.reminder.template;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the reminder email: the precompiled template against the text block with
+ * String.formatted it replaced.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="HtmlTemplateBenchmark -prof gc"
+ *
+ * gc.alloc.rate.norm is allocated bytes per render. The old rendering escapes nothing,
+ * so the template does more work per value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlTemplateBenchmark {
+
+    // the reminder email as EmailService rendered it before HtmlTemplate
+    private static final String FORMAT = """
+        <div style="font-family: Arial, sans-serif; background:#f4f4f5; padding:20px;">
+          <div style="max-width:520px; margin:0 auto; background:#ffffff; border-radius:12px; overflow:hidden; border:1px solid #e5e7eb;">
+            <div style="background:#2563eb; color:#fff; padding:16px 20px; font-size:18px; font-weight:600;">
+              🔔 Reminder: %s
+            </div>
+            <div style="padding:20px;">
+              <p style="margin:0 0 12px 0; color:#374151;">Hi,</p>
+              <p style="margin:0 0 16px 0; color:#374151;">This is a friendly reminder for your event.</p>
+
+              <table style="width:100%%; border-collapse:collapse; margin-top:10px;">
+                <tr>
+                  <td style="padding:8px 0; color:#6b7280; width:110px;">Title:</td>
+                  <td style="padding:8px 0; color:#111827; font-weight:500;">%s</td>
+                </tr>
+                <tr>
+                  <td style="padding:8px 0; color:#6b7280;">Event date:</td>
+                  <td style="padding:8px 0; color:#111827;">%s</td>
+                </tr>
+                <tr>
+                  <td style="padding:8px 0; color:#6b7280; vertical-align:top;">Description:</td>
+                  <td style="padding:8px 0; color:#111827;">%s</td>
+                </tr>
+              </table>
+
+              <p style="margin-top:20px; font-size:12px; color:#9ca3af;">
+                You received this email because you created a reminder in ReminderApp.
+              </p>
+            </div>
+          </div>
+        </div>
+        """;
+
+    // the same markup with placeholders, which is the template EmailService compiles
+    private static final HtmlTemplate TEMPLATE = HtmlTemplate.compile(
+            FORMAT.formatted("{{title}}", "{{title}}", "{{eventDate}}", "{{description}}"),
+            "title", "eventDate", "description");
+
+    @Param({"plain", "escaped"})
+    public String values;
+
+    private String title;
+    private LocalDate eventDate;
+    private String description;
+
+    @Setup
+    public void setUp() {
+        eventDate = LocalDate.of(2026, 10, 18);
+        if (values.equals("plain")) {
+            title = "Dentist appointment";
+            description = "Bring the insurance card and arrive ten minutes early";
+        } else {
+            title = "Q3 review: \"Sales & Marketing\"";
+            description = "Agenda <draft> - Tom's & Anna's slides, budget > plan";
+        }
+    }
+
+    @Benchmark
+    public String template() {
+        return TEMPLATE.render(title, eventDate, description);
+    }
+
+    @Benchmark
+    public String formatted() {
+        return FORMAT.formatted(title, title, eventDate, description);
+    }
+}
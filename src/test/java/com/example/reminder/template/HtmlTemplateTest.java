@@ -0,0 +1,35 @@
+package com.example.reminder.template;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlTemplateTest {
+
+    @Test
+    void rendersRepeatedPlaceholdersAndEscapesValues() {
+        HtmlTemplate template = HtmlTemplate.compile(
+                "<h1>{{title}}</h1><p>{{ title }} - {{body}}</p><a href=\"{{link}}\">x</a>",
+                "title", "body", "link");
+
+        String html = template.render("Tom & <Jerry>", "it's \"fine\"", "https://a.b/?x=1&y=2");
+
+        assertEquals("<h1>Tom &amp; &lt;Jerry&gt;</h1><p>Tom &amp; &lt;Jerry&gt; - it&#39;s &quot;fine&quot;</p>"
+                + "<a href=\"https://a.b/?x=1&amp;y=2\">x</a>", html);
+    }
+
+    @Test
+    void nullValuesRenderEmptyAndLiteralsAreUntouched() {
+        HtmlTemplate template = HtmlTemplate.compile("<td style=\"width:100%\">{{v}}</td>", "v");
+
+        assertEquals("<td style=\"width:100%\"></td>", template.render((Object) null));
+        assertEquals("<td style=\"width:100%\">plain</td>", template.render("plain"));
+    }
+
+    @Test
+    void rejectsUnknownPlaceholdersAndWrongArity() {
+        assertThrows(IllegalArgumentException.class, () -> HtmlTemplate.compile("{{missing}}", "v"));
+        assertThrows(IllegalArgumentException.class, () -> HtmlTemplate.compile("{{v", "v"));
+        assertThrows(IllegalArgumentException.class, () -> HtmlTemplate.compile("{{v}}", "v").render());
+    }
+}